@@ -0,0 +1,40 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.bench;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Entry point of the benchmark jar. Accepts the regular JMH command line options, but writes the results as JSON to {@code jmh-result.json} unless another result format or file has been specified. The JSON file can be kept between releases to track regressions.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+public class Bench
+{
+	public static void main(String[] args) throws RunnerException, CommandLineOptionException
+	{
+		CommandLineOptions cmd = new CommandLineOptions(args);
+		OptionsBuilder builder = new OptionsBuilder();
+		
+		if (!cmd.getResultFormat().hasValue())
+		{
+			builder.resultFormat(ResultFormatType.JSON);
+		}
+		if (!cmd.getResult().hasValue())
+		{
+			builder.result("jmh-result.json");
+		}
+		
+		Options options = builder.parent(cmd).build();
+		new Runner(options).run();
+	}
+}
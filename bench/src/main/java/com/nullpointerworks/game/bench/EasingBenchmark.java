@@ -0,0 +1,95 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import exp.nullpointerworks.game.tween.Easing;
+
+/**
+ * Compares evaluating a CSS-style cubic bezier easing with a Newton solve on every call against the compiled sample table of {@code Easing}, for 10000 values at spread out progress.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EasingBenchmark
+{
+	private static final int VALUES = 10000;
+	private static final float X1 = 0.25f, Y1 = 0.1f, X2 = 0.25f, Y2 = 1f;
+	
+	private float[] progress;
+	private Easing easing;
+	
+	@Setup
+	public void setup()
+	{
+		progress = new float[VALUES];
+		for (int i=0; i<VALUES; i++)
+		{
+			progress[i] = (i * 0.618034f) % 1f;
+		}
+		easing = Easing.cubicBezier(X1, Y1, X2, Y2);
+	}
+	
+	@Benchmark
+	public float newton()
+	{
+		float sum = 0f;
+		for (float x : progress)
+		{
+			sum += solve(x);
+		}
+		return sum;
+	}
+	
+	@Benchmark
+	public float table()
+	{
+		float sum = 0f;
+		for (float x : progress)
+		{
+			sum += easing.apply(x);
+		}
+		return sum;
+	}
+	
+	private static float solve(float x)
+	{
+		float cx = 3f * X1;
+		float bx = 3f * (X2 - X1) - cx;
+		float ax = 1f - cx - bx;
+		float cy = 3f * Y1;
+		float by = 3f * (Y2 - Y1) - cy;
+		float ay = 1f - cy - by;
+		
+		float t = x;
+		for (int n=0; n<8; n++)
+		{
+			float err = ((ax * t + bx) * t + cx) * t - x;
+			if (Math.abs(err) < 1e-6f) break;
+			float slope = (3f * ax * t + 2f * bx) * t + cx;
+			if (Math.abs(slope) < 1e-6f) break;
+			t -= err / slope;
+		}
+		return ((ay * t + by) * t + cy) * t;
+	}
+}
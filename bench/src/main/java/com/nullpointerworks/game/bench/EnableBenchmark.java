@@ -0,0 +1,66 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nullpointerworks.game.system.GameSystem;
+
+/**
+ * Measures the cost of processing an enable order in a {@code GameSystem}. Each invocation toggles between two disjoint sets of identifiers, so every element changes state.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EnableBenchmark
+{
+	@Param({"100", "1000", "10000"})
+	public int elements;
+	
+	private GameSystem system;
+	private int[] even;
+	private int[] odd;
+	private boolean flip;
+	
+	@Setup
+	public void setup()
+	{
+		system = new GameSystem();
+		even = new int[(elements + 1) / 2];
+		odd = new int[elements / 2];
+		for (int i=0; i<elements; i++)
+		{
+			system.addElement(new StubElement(), i);
+			if ((i & 1) == 0) even[i/2] = i;
+			else odd[i/2] = i;
+		}
+	}
+	
+	@Benchmark
+	public void enable()
+	{
+		flip = !flip;
+		system.enableElements(flip? even: odd);
+		system.render(0d);
+	}
+}
@@ -0,0 +1,130 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.bench;
+
+import java.util.ArrayList;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nullpointerworks.game.system.EventBus;
+import com.nullpointerworks.game.system.EventListener;
+import com.nullpointerworks.game.system.GameEvent;
+
+/**
+ * Measures publishing and dispatching a tick worth of events, once through an {@code EventBus} and once through a list of newly allocated event objects. Run with {@code -prof gc} to compare the allocation rate per operation, which should be zero for the bus.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EventBusBenchmark
+{
+	private static final int TYPES = 8;
+	
+	@Param({"1000", "16000"})
+	public int events;
+	
+	private EventBus bus;
+	private ArrayList<Message> queue;
+	private ArrayList<ArrayList<MessageListener>> handlers;
+	private long sum = 0;
+	
+	@Setup
+	public void setup()
+	{
+		bus = new EventBus(events);
+		queue = new ArrayList<Message>();
+		handlers = new ArrayList<ArrayList<MessageListener>>();
+		for (int t=0; t<TYPES; t++)
+		{
+			EventListener listener = new EventListener()
+			{
+				@Override
+				public void onEvent(GameEvent event)
+				{
+					sum += event.getInt();
+				}
+			};
+			bus.subscribe(t, listener);
+			
+			ArrayList<MessageListener> list = new ArrayList<MessageListener>();
+			list.add(new MessageListener()
+			{
+				@Override
+				public void onMessage(Message message)
+				{
+					sum += message.value;
+				}
+			});
+			handlers.add(list);
+		}
+	}
+	
+	@Benchmark
+	public long bus()
+	{
+		for (int i=0; i<events; i++)
+		{
+			bus.claim(i % TYPES, i).setInt(i).publish();
+		}
+		bus.dispatch();
+		return sum;
+	}
+	
+	@Benchmark
+	public long allocated()
+	{
+		for (int i=0; i<events; i++)
+		{
+			queue.add(new Message(i % TYPES, i, i));
+		}
+		for (int i=0, l=queue.size(); i<l; i++)
+		{
+			Message m = queue.get(i);
+			ArrayList<MessageListener> list = handlers.get(m.type);
+			for (int h=0, n=list.size(); h<n; h++) list.get(h).onMessage(m);
+		}
+		queue.clear();
+		return sum;
+	}
+	
+	/*
+	 * the kind of event object an ad hoc event system allocates per message
+	 */
+	private static class Message
+	{
+		final int type;
+		final int source;
+		final int value;
+		
+		Message(int type, int source, int value)
+		{
+			this.type = type;
+			this.source = source;
+			this.value = value;
+		}
+	}
+	
+	private interface MessageListener
+	{
+		void onMessage(Message message);
+	}
+}
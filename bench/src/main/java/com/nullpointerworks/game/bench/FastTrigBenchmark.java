@@ -0,0 +1,101 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import exp.nullpointerworks.game.tween.FastTrig;
+import exp.nullpointerworks.game.tween.TweenBank;
+import exp.nullpointerworks.game.tween.type.CosineTween;
+import exp.nullpointerworks.game.tween.type.SineTween;
+
+/**
+ * Compares advancing many sine and cosine tweens with {@code Math.sin} and {@code Math.cos} against the quarter-wave lookup table of {@code FastTrig}, both as individual tween elements and in a {@code TweenBank}.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FastTrigBenchmark
+{
+	private static final float STEP = 1f / 60f;
+	
+	@Param({"1000", "10000", "100000"})
+	public int tweens;
+	
+	@Param({"exact", "fast"})
+	public String math;
+	
+	private SineTween[] elements;
+	private TweenBank bank;
+	
+	@Setup
+	public void setup()
+	{
+		int mode = math.equals("fast")? FastTrig.FAST: FastTrig.EXACT;
+		elements = new SineTween[tweens];
+		bank = new TweenBank(tweens);
+		bank.setTrigMode(mode);
+		for (int i=0; i<tweens; i++)
+		{
+			SineTween e = (i % 2 == 0)? new SineTween(10f, 1f): new CosineTween(10f, 1f);
+			e.setTrigMode(mode);
+			e.setValue(0f);
+			for (int s=0, l=i % 60; s<l; s++) e.update(STEP);
+			elements[i] = e;
+			
+			int track = bank.track(0f);
+			bank.setRepeat(track, true);
+			bank.sine(track, 10f, 1f);
+			bank.cosine(track, 0f, 1f);
+		}
+	}
+	
+	@Benchmark
+	public float elements()
+	{
+		float sum = 0f;
+		for (SineTween e : elements)
+		{
+			e.update(STEP);
+			if (e.isComplete())
+			{
+				e.reset();
+				e.setValue(0f);
+			}
+			sum += e.getValue();
+		}
+		return sum;
+	}
+	
+	@Benchmark
+	public float bank()
+	{
+		bank.update(STEP);
+		float sum = 0f;
+		for (int i=0, l=tweens; i<l; i++)
+		{
+			sum += bank.getValue(i);
+		}
+		return sum;
+	}
+}
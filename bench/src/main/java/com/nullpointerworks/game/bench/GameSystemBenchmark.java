@@ -0,0 +1,67 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nullpointerworks.game.system.GameSystem;
+
+/**
+ * Measures the cost of iterating the elements of a {@code GameSystem} during update and render. Half of the elements are enabled.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GameSystemBenchmark
+{
+	@Param({"10", "1000", "100000"})
+	public int elements;
+	
+	private GameSystem system;
+	
+	@Setup
+	public void setup()
+	{
+		system = new GameSystem();
+		int[] enabled = new int[elements / 2];
+		for (int i=0; i<elements; i++)
+		{
+			system.addElement(new StubElement(), i);
+			if ((i & 1) == 0 && i/2 < enabled.length) enabled[i/2] = i;
+		}
+		system.enableElements(enabled);
+		system.render(0d);
+	}
+	
+	@Benchmark
+	public void update()
+	{
+		system.update(1d / 60d);
+	}
+	
+	@Benchmark
+	public void render()
+	{
+		system.render(0.5d);
+	}
+}
@@ -0,0 +1,81 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.bench;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nullpointerworks.game.event.FixedLoop;
+import com.nullpointerworks.game.replay.InputJournal;
+import com.nullpointerworks.game.time.VirtualClock;
+
+/**
+ * Measures the cost a recording {@code InputJournal} adds to a loop tick, with one input record per tick. A new journal is recorded into a temporary file for every iteration, which is deleted afterwards. Run with {@code -prof gc} to verify recording does not allocate.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JournalBenchmark
+{
+	private FixedLoop plain;
+	private FixedLoop recording;
+	private InputJournal journal;
+	private Path file;
+	private int input = 0;
+	
+	@Setup(Level.Iteration)
+	public void setup() throws IOException
+	{
+		plain = new FixedLoop(new StubListener(), 60, 60d);
+		plain.setClock(new VirtualClock());
+		
+		file = Files.createTempFile("journal", ".bin");
+		journal = new InputJournal(file);
+		recording = new FixedLoop(new StubListener(), 60, 60d);
+		recording.setClock(new VirtualClock());
+		recording.setJournal(journal);
+	}
+	
+	@TearDown(Level.Iteration)
+	public void teardown() throws IOException
+	{
+		journal.close();
+		Files.deleteIfExists(file);
+	}
+	
+	@Benchmark
+	public void plain()
+	{
+		plain.advance(1);
+	}
+	
+	@Benchmark
+	public void recording()
+	{
+		journal.record(1, input++);
+		recording.advance(1);
+	}
+}
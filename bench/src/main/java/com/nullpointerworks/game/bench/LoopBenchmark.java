@@ -0,0 +1,73 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nullpointerworks.game.event.AsapLoop;
+import com.nullpointerworks.game.event.FixedLoop;
+import com.nullpointerworks.game.event.VariableLoop;
+import com.nullpointerworks.game.time.VirtualClock;
+
+/**
+ * Measures the overhead of a single loop tick. The loops are driven by a {@code VirtualClock}, so no time is spent waiting, and a stub {@code LoopListener} is used so only the loop itself is measured.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LoopBenchmark
+{
+	private AsapLoop asap;
+	private FixedLoop fixed;
+	private VariableLoop variable;
+	
+	@Setup
+	public void setup()
+	{
+		asap = new AsapLoop(new StubListener(), 60);
+		asap.setClock(new VirtualClock());
+		
+		fixed = new FixedLoop(new StubListener(), 60, 60d);
+		fixed.setClock(new VirtualClock());
+		
+		variable = new VariableLoop(new StubListener(), 60);
+		variable.setClock(new VirtualClock());
+	}
+	
+	@Benchmark
+	public void asap()
+	{
+		asap.advance(1);
+	}
+	
+	@Benchmark
+	public void fixed()
+	{
+		fixed.advance(1);
+	}
+	
+	@Benchmark
+	public void variable()
+	{
+		variable.advance(1);
+	}
+}
@@ -0,0 +1,115 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.bench;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nullpointerworks.game.system.GameElement;
+import com.nullpointerworks.game.system.GameSystem;
+
+/**
+ * Compares the serial update of a {@code GameSystem} against the parallel phase update. Every element performs a small amount of independent work per update.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParallelUpdateBenchmark
+{
+	@Param({"1000", "100000"})
+	public int elements;
+	
+	@Param({"serial", "parallel"})
+	public String mode;
+	
+	private GameSystem system;
+	private ForkJoinPool pool;
+	
+	@Setup
+	public void setup()
+	{
+		system = new GameSystem();
+		int[] ids = new int[elements];
+		for (int i=0; i<elements; i++)
+		{
+			system.addElement(new WorkElement(mode.equals("parallel")), i);
+			ids[i] = i;
+		}
+		system.enableElements(ids);
+		system.render(0d);
+		
+		if (mode.equals("parallel"))
+		{
+			pool = new ForkJoinPool();
+			system.setUpdatePool(pool);
+		}
+	}
+	
+	@TearDown
+	public void teardown()
+	{
+		if (pool != null) pool.shutdown();
+	}
+	
+	@Benchmark
+	public void update()
+	{
+		system.update(1d / 60d);
+	}
+	
+	/*
+	 * integrates a tiny bit of motion, independent of all other elements
+	 */
+	private static class WorkElement extends GameElement
+	{
+		private double x = 0d, y = 0d, vx = 1d, vy = 0.5d;
+		
+		WorkElement(boolean parallel)
+		{
+			if (parallel) setUpdatePhase(0);
+		}
+		
+		@Override
+		public void onInit() {}
+		
+		@Override
+		public void onUpdate(double time) 
+		{
+			for (int i=0; i<16; i++)
+			{
+				double ax = -x * 0.1d, ay = -y * 0.1d;
+				vx += ax * time;
+				vy += ay * time;
+				x += vx * time;
+				y += vy * time;
+			}
+		}
+		
+		@Override
+		public void onRender(double interpolation) {}
+		
+		@Override
+		public void onDispose() {}
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.bench;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nullpointerworks.game.system.GameElement;
+import com.nullpointerworks.game.system.GameSystem;
+import com.nullpointerworks.game.system.SnapshotRing;
+
+/**
+ * Measures saving and restoring the state of a {@code GameSystem} through a {@code SnapshotRing}, with 32 bytes of state per element, and a rollback of eight ticks including simulating forward again.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SnapshotBenchmark
+{
+	private static final double STEP = 1d / 60d;
+	private static final int TICKS = 16;
+	
+	@Param({"1000", "4000", "16000"})
+	public int elements;
+	
+	private GameSystem system;
+	private SnapshotRing ring;
+	private long tick = 0;
+	
+	@Setup
+	public void setup()
+	{
+		ring = new SnapshotRing(elements * 32, TICKS);
+		system = new GameSystem();
+		system.setSnapshots(ring);
+		int[] ids = new int[elements];
+		for (int i=0; i<elements; i++)
+		{
+			system.addElement(new BodyElement(ring), i);
+			ids[i] = i;
+		}
+		system.enableElements(ids);
+		system.render(0d);
+		for (int i=0; i<TICKS; i++) system.update(STEP);
+	}
+	
+	@Benchmark
+	public void save()
+	{
+		ring.save(tick++);
+	}
+	
+	@Benchmark
+	public boolean restore()
+	{
+		return ring.restore(system.getTick() - 1);
+	}
+	
+	@Benchmark
+	public boolean rollback()
+	{
+		return system.rollback(system.getTick() - 8, STEP);
+	}
+	
+	/*
+	 * moves a body with its position and velocity in the state slab
+	 */
+	private static class BodyElement extends GameElement
+	{
+		private final SnapshotRing ring;
+		private final int offset;
+		
+		private BodyElement(SnapshotRing ring)
+		{
+			this.ring = ring;
+			offset = ring.allocate(32);
+		}
+		
+		@Override
+		public void onUpdate(double time)
+		{
+			ByteBuffer state = ring.getState();
+			state.putDouble(offset + 16, state.getDouble(offset + 16) + 9.81 * time);
+			state.putDouble(offset, state.getDouble(offset) + state.getDouble(offset + 16) * time);
+			state.putDouble(offset + 8, state.getDouble(offset + 8) + state.getDouble(offset + 24) * time);
+		}
+		
+		@Override
+		public void onInit() {}
+		
+		@Override
+		public void onRender(double interpolation) {}
+		
+		@Override
+		public void onDispose() {}
+	}
+}
@@ -0,0 +1,37 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.bench;
+
+import com.nullpointerworks.game.system.GameElement;
+
+/**
+ * A {@code GameElement} that only keeps a counter, to measure the cost of the system around it.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+public class StubElement extends GameElement
+{
+	public long updates = 0;
+	public long renders = 0;
+	
+	@Override
+	public void onInit() {}
+	
+	@Override
+	public void onUpdate(double time) 
+	{
+		updates++;
+	}
+	
+	@Override
+	public void onRender(double interpolation) 
+	{
+		renders++;
+	}
+	
+	@Override
+	public void onDispose() {}
+}
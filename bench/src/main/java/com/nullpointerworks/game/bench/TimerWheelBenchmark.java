@@ -0,0 +1,77 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.nullpointerworks.game.system.TimerListener;
+import com.nullpointerworks.game.system.TimerWheel;
+
+/**
+ * Measures the cost of a {@code TimerWheel} with a large amount of pending timers. Every expired timer reschedules itself with a new delay, so the amount of pending timers stays the same. The schedule benchmark schedules and cancels a single timer on a loaded wheel.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TimerWheelBenchmark
+{
+	@Param({"1000", "100000"})
+	public int timers;
+	
+	private TimerWheel wheel;
+	private int[] delays;
+	private int cursor = 0;
+	private TimerListener reschedule;
+	
+	@Setup
+	public void setup()
+	{
+		Random random = new Random(1);
+		delays = new int[4096];
+		for (int i=0; i<delays.length; i++) delays[i] = 1 + random.nextInt(10_000);
+		
+		wheel = new TimerWheel(timers * 2);
+		reschedule = (timer) -> wheel.schedule(reschedule, nextDelay());
+		for (int i=0; i<timers; i++) wheel.schedule(reschedule, nextDelay());
+	}
+	
+	@Benchmark
+	public void advance()
+	{
+		wheel.advance();
+	}
+	
+	@Benchmark
+	public boolean schedule()
+	{
+		long timer = wheel.schedule(reschedule, nextDelay());
+		return wheel.cancel(timer);
+	}
+	
+	private int nextDelay()
+	{
+		cursor = (cursor + 1) & (delays.length - 1);
+		return delays[cursor];
+	}
+}
@@ -0,0 +1,108 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import exp.nullpointerworks.game.tween.Tween;
+import exp.nullpointerworks.game.tween.TweenBank;
+
+/**
+ * Compares advancing many repeating tween sequences stored in a single {@code TweenBank} against the same amount of individual {@code Tween} objects. Every sequence contains all step types, and the sequences are spread out in time so all step types are running at once.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TweenBankBenchmark
+{
+	private static final float STEP = 1f / 60f;
+	
+	@Param({"1000", "10000", "100000"})
+	public int tweens;
+	
+	private Tween[] objects;
+	private TweenBank bank;
+	
+	@Setup
+	public void setup()
+	{
+		objects = new Tween[tweens];
+		bank = new TweenBank(tweens);
+		int batch = Math.max(1, tweens / 300);
+		for (int i=0; i<tweens; i++)
+		{
+			Tween tween = new Tween(1f);
+			tween.setRepeat(true);
+			tween.add( Tween.scale(2f, 1f) );
+			tween.add( Tween.move(10f, 1f) );
+			tween.add( Tween.pause(1f) );
+			tween.add( Tween.sine(20f, 1f) );
+			tween.add( Tween.cosine(0f, 1f) );
+			tween.add( Tween.value(1f) );
+			objects[i] = tween;
+			
+			int track = bank.track(1f);
+			bank.setRepeat(track, true);
+			bank.scale(track, 2f, 1f);
+			bank.move(track, 10f, 1f);
+			bank.pause(track, 1f);
+			bank.sine(track, 20f, 1f);
+			bank.cosine(track, 0f, 1f);
+			bank.value(track, 1f);
+			
+			/*
+			 * spread the sequences over all of their steps
+			 */
+			int offset = i % 300;
+			for (int s=0; s<offset; s++)
+			{
+				tween.update(STEP);
+			}
+			if (i % batch == 0) bank.update(STEP);
+		}
+	}
+	
+	@Benchmark
+	public float objects()
+	{
+		float sum = 0f;
+		for (Tween tween : objects)
+		{
+			tween.update(STEP);
+			sum += tween.getValue();
+		}
+		return sum;
+	}
+	
+	@Benchmark
+	public float bank()
+	{
+		bank.update(STEP);
+		float sum = 0f;
+		for (int i=0, l=tweens; i<l; i++)
+		{
+			sum += bank.getValue(i);
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,93 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import exp.nullpointerworks.game.tween.Easing;
+import exp.nullpointerworks.game.tween.Tween;
+import exp.nullpointerworks.game.tween.abstracts.TweenElement;
+
+/**
+ * Measures the cost of a single update of every tween type, and of a {@code Tween} sequence that contains all of them.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TweenBenchmark
+{
+	private static final float STEP = 1f / 60f;
+	
+	@Param({"scale", "move", "pause", "sine", "cosine", "ease", "value"})
+	public String type;
+	
+	private TweenElement element;
+	private Tween sequence;
+	
+	@Setup
+	public void setup()
+	{
+		element = create(type);
+		element.setValue(1f);
+		
+		sequence = new Tween(1f);
+		sequence.setRepeat(true);
+		sequence.add( Tween.scale(2f, 1f) );
+		sequence.add( Tween.move(10f, 1f) );
+		sequence.add( Tween.pause(1f) );
+		sequence.add( Tween.sine(20f, 1f) );
+		sequence.add( Tween.cosine(0f, 1f) );
+		sequence.add( Tween.ease(5f, 1f, Easing.QUAD_IN_OUT) );
+		sequence.add( Tween.value(1f) );
+	}
+	
+	@Benchmark
+	public float element()
+	{
+		element.update(STEP);
+		if (element.isComplete()) element.reset();
+		return element.getValue();
+	}
+	
+	@Benchmark
+	public float sequence()
+	{
+		sequence.update(STEP);
+		return sequence.getValue();
+	}
+	
+	private TweenElement create(String type)
+	{
+		switch (type)
+		{
+		case "scale": 	return Tween.scale(2f, 1f);
+		case "move": 	return Tween.move(10f, 1f);
+		case "pause": 	return Tween.pause(1f);
+		case "sine": 	return Tween.sine(10f, 1f);
+		case "cosine": 	return Tween.cosine(10f, 1f);
+		case "ease": 	return Tween.ease(10f, 1f, Easing.QUAD_IN_OUT);
+		case "value": 	return Tween.value(10f);
+		default: throw new IllegalArgumentException(type);
+		}
+	}
+}
@@ -0,0 +1,98 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.bench;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import exp.nullpointerworks.game.tween.Tween;
+import exp.nullpointerworks.game.tween.TweenBuilder;
+import exp.nullpointerworks.game.tween.TweenManager;
+import exp.nullpointerworks.game.tween.TweenPool;
+
+/**
+ * Measures a tick of many short-lived tweens, where every tick starts as many new tweens as complete. The manual variant keeps the tweens in a list and removes completed ones with an iterator, and allocates new tweens. The managed variant uses a {@code TweenManager} that swap-removes completed tweens and recycles them through a {@code TweenPool}.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TweenManagerBenchmark
+{
+	private static final float STEP = 1f / 60f;
+	private static final int LIFETIME = 60;
+	
+	@Param({"1000", "10000"})
+	public int tweens;
+	
+	private ArrayList<Tween> list;
+	private TweenManager manager;
+	private TweenBuilder builder;
+	private int spawn;
+	
+	@Setup
+	public void setup()
+	{
+		spawn = tweens / LIFETIME;
+		list = new ArrayList<Tween>();
+		manager = new TweenManager();
+		TweenPool pool = new TweenPool();
+		manager.setPool(pool);
+		builder = new TweenBuilder(pool);
+		for (int i=0; i<LIFETIME; i++)
+		{
+			manual();
+			managed();
+		}
+	}
+	
+	@Benchmark
+	public int manual()
+	{
+		for (int i=0; i<spawn; i++)
+		{
+			Tween t = new Tween(0f);
+			t.add( Tween.move(1f, LIFETIME * STEP) );
+			list.add(t);
+		}
+		Iterator<Tween> it = list.iterator();
+		while (it.hasNext())
+		{
+			Tween t = it.next();
+			t.update(STEP);
+			if (t.isComplete()) it.remove();
+		}
+		return list.size();
+	}
+	
+	@Benchmark
+	public int managed()
+	{
+		for (int i=0; i<spawn; i++)
+		{
+			manager.add( builder.begin(0f).move(1f, LIFETIME * STEP).build() );
+		}
+		manager.onUpdate(STEP);
+		return manager.getTweenCount();
+	}
+}
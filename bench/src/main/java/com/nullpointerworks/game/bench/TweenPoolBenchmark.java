@@ -0,0 +1,90 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import exp.nullpointerworks.game.tween.Tween;
+import exp.nullpointerworks.game.tween.TweenBuilder;
+import exp.nullpointerworks.game.tween.TweenPool;
+
+/**
+ * Measures building a short tween sequence, playing it and throwing it away, once with new objects and once through a {@code TweenPool}. Run with {@code -prof gc} to compare the allocation rate per operation, which should be zero for the pooled variants.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TweenPoolBenchmark
+{
+	private static final float STEP = 1f / 60f;
+	private static final int FRAMES = 10;
+	
+	private TweenPool pool;
+	private TweenBuilder builder;
+	private Tween reused;
+	
+	@Setup
+	public void setup()
+	{
+		pool = new TweenPool();
+		builder = new TweenBuilder(pool);
+		reused = new Tween(0f);
+	}
+	
+	@Benchmark
+	public float allocated()
+	{
+		Tween tween = new Tween(0f);
+		tween.add( Tween.move(10f, 0.05f) );
+		tween.add( Tween.pause(0.05f) );
+		tween.add( Tween.sine(0f, 0.05f) );
+		tween.add( Tween.value(1f) );
+		return play(tween);
+	}
+	
+	@Benchmark
+	public float pooled()
+	{
+		Tween tween = builder.begin(0f).move(10f, 0.05f).pause(0.05f).sine(0f, 0.05f).value(1f).build();
+		float v = play(tween);
+		pool.release(tween);
+		return v;
+	}
+	
+	@Benchmark
+	public float rebuilt()
+	{
+		Tween tween = builder.begin(reused, 0f).move(10f, 0.05f).pause(0.05f).sine(0f, 0.05f).value(1f).build();
+		return play(tween);
+	}
+	
+	private float play(Tween tween)
+	{
+		float sum = 0f;
+		for (int i=0; i<FRAMES; i++)
+		{
+			tween.update(STEP);
+			sum += tween.getValue();
+		}
+		return sum;
+	}
+}
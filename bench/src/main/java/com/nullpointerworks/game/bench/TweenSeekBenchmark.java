@@ -0,0 +1,101 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import exp.nullpointerworks.game.tween.BakedTween;
+import exp.nullpointerworks.game.tween.Tween;
+
+/**
+ * Compares jumping to a point in a long tween by stepping {@code update(float)} from the start against {@code Tween.seek(float)} and a {@code BakedTween} sampled at 60 samples per second. Each operation jumps to the next of a fixed sequence of spread out times.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TweenSeekBenchmark
+{
+	private static final float STEP = 1f / 60f;
+	
+	@Param({"8", "64", "512"})
+	public int elements;
+	
+	private Tween tween;
+	private BakedTween baked;
+	private float[] times;
+	private int next = 0;
+	
+	@Setup
+	public void setup()
+	{
+		tween = new Tween(0f);
+		for (int i=0; i<elements; i++)
+		{
+			if (i % 4 == 0) tween.add( Tween.move(i, 0.5f) );
+			else if (i % 4 == 1) tween.add( Tween.sine(-i, 0.25f) );
+			else if (i % 4 == 2) tween.add( Tween.pause(0.25f) );
+			else tween.add( Tween.cosine(i, 0.5f) );
+		}
+		baked = tween.bake(60f);
+		
+		float duration = tween.getDuration();
+		times = new float[256];
+		for (int i=0; i<times.length; i++)
+		{
+			times[i] = ((i * 0.618034f) % 1f) * duration;
+		}
+	}
+	
+	@Benchmark
+	public float stepped()
+	{
+		float time = nextTime();
+		tween.reset();
+		tween.setEnable(true);
+		for (float t=0f; t<time; t+=STEP)
+		{
+			tween.update(STEP);
+		}
+		return tween.getValue();
+	}
+	
+	@Benchmark
+	public float seek()
+	{
+		tween.seek(nextTime());
+		return tween.getValue();
+	}
+	
+	@Benchmark
+	public float baked()
+	{
+		baked.seek(nextTime());
+		return baked.getValue();
+	}
+	
+	private float nextTime()
+	{
+		next = (next + 1) & 255;
+		return times[next];
+	}
+}
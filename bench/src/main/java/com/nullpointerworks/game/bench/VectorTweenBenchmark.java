@@ -0,0 +1,108 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import exp.nullpointerworks.game.tween.Easing;
+import exp.nullpointerworks.game.tween.Tween;
+import exp.nullpointerworks.game.tween.VectorTween;
+
+/**
+ * Compares animating the position, scale and colour of many sprites, eight values each, with one {@code Tween} per value against one eight channel {@code VectorTween} per sprite. The values of every sprite are read into the same array in both cases.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class VectorTweenBenchmark
+{
+	private static final float STEP = 1f / 60f;
+	private static final int CHANNELS = 8;
+	
+	@Param({"1000", "10000"})
+	public int sprites;
+	
+	private Tween[] tweens;
+	private VectorTween[] vectors;
+	private float[] out = new float[CHANNELS];
+	
+	@Setup
+	public void setup()
+	{
+		float[] start = {0f, 0f, 1f, 1f, 1f, 1f, 1f, 1f};
+		float[] end = {100f, 50f, 2f, 2f, 0.5f, 0.2f, 0.8f, 0f};
+		tweens = new Tween[sprites * CHANNELS];
+		vectors = new VectorTween[sprites];
+		for (int i=0; i<sprites; i++)
+		{
+			VectorTween v = new VectorTween(start).ease(Easing.BACK_OUT, 1f, end).pause(0.5f).sine(1f, start);
+			v.setRepeat(true);
+			vectors[i] = v;
+			
+			for (int c=0; c<CHANNELS; c++)
+			{
+				Tween t = new Tween(start[c]);
+				t.add( Tween.ease(end[c], 1f, Easing.BACK_OUT) );
+				t.add( Tween.pause(0.5f) );
+				t.add( Tween.sine(start[c], 1f) );
+				t.setRepeat(true);
+				tweens[i * CHANNELS + c] = t;
+			}
+			
+			for (int s=0, l=i % 150; s<l; s++)
+			{
+				v.update(STEP);
+				for (int c=0; c<CHANNELS; c++) tweens[i * CHANNELS + c].update(STEP);
+			}
+		}
+	}
+	
+	@Benchmark
+	public float tweens()
+	{
+		float sum = 0f;
+		for (int i=0, t=0; i<sprites; i++)
+		{
+			for (int c=0; c<CHANNELS; c++, t++)
+			{
+				tweens[t].update(STEP);
+				out[c] = tweens[t].getValue();
+			}
+			sum += out[0];
+		}
+		return sum;
+	}
+	
+	@Benchmark
+	public float vectors()
+	{
+		float sum = 0f;
+		for (int i=0; i<sprites; i++)
+		{
+			vectors[i].update(STEP);
+			vectors[i].getValues(out);
+			sum += out[0];
+		}
+		return sum;
+	}
+}
@@ -0,0 +1,72 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that a {@code LoadGovernor} under sustained load reports lowering the rate to the callback that matches what it governs.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+public class LoadGovernorTest
+{
+	private static final double HERTZ = 60d;
+	
+	@Test
+	public void updateRateStepsAreReportedAsUpdateRate()
+	{
+		Steps steps = overload(false);
+		assertEquals(HERTZ * 0.8, steps.update_rate, 1e-9, "update rate after the first step");
+		assertEquals(0d, steps.frame_rate, "no frame rate should be reported");
+	}
+	
+	@Test
+	public void frameRateStepsAreReportedAsFrameRate()
+	{
+		Steps steps = overload(true);
+		assertEquals(HERTZ * 0.8, steps.frame_rate, 1e-9, "frame rate after the first step");
+		assertEquals(0d, steps.update_rate, "no update rate should be reported");
+	}
+	
+	/*
+	 * runs a governor without render divisor or hold at a load well above the degrade threshold
+	 */
+	private Steps overload(boolean frames)
+	{
+		Steps steps = new Steps();
+		LoadGovernor governor = new LoadGovernor();
+		governor.setMaxRenderDivisor(1);
+		governor.setMinHz(HERTZ / 4d);
+		governor.setHoldFrames(0);
+		governor.setSmoothing(1d);
+		governor.setFrameRateGoverned(frames);
+		governor.reset(HERTZ);
+		governor.recordUpdate(Loop.NANO / 30);
+		governor.adapt(HERTZ, steps);
+		return steps;
+	}
+	
+	private static class Steps implements LoopMonitor
+	{
+		double update_rate = 0d;
+		double frame_rate = 0d;
+		
+		@Override
+		public void onUpdateRate(double hertz)
+		{
+			update_rate = hertz;
+		}
+		
+		@Override
+		public void onFrameRate(double hertz)
+		{
+			frame_rate = hertz;
+		}
+	}
+}
@@ -0,0 +1,106 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks the catch-up policies of a {@code ScheduledLoop} and that its updates stay on the exact period, by dispatching it at made up times without starting the scheduler.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+public class ScheduledLoopTest
+{
+	private static final long START = 1_000_000_000L;
+	private static final double HERTZ = 60d;
+	private static final int MAX = 5;
+	
+	@Test
+	public void dropResyncsToNow()
+	{
+		Counter counter = new Counter();
+		ScheduledLoop loop = stalled(counter, CatchUpPolicy.DROP);
+		
+		assertEquals(1 + MAX, counter.updates, "updates before the catch-up limit");
+		catchUp(loop, START + Loop.NANO);
+		assertEquals(1 + MAX + 1, counter.updates, "after dropping, only the update due now should remain");
+	}
+	
+	@Test
+	public void slowKeepsMaxUpdates()
+	{
+		Counter counter = new Counter();
+		ScheduledLoop loop = stalled(counter, CatchUpPolicy.SLOW);
+		
+		assertEquals(1 + MAX, counter.updates, "updates before the catch-up limit");
+		long before = counter.updates;
+		loop.dispatch(START + Loop.NANO, MAX);
+		assertEquals(before + MAX, counter.updates, "slowing down should keep the maximum amount of updates due");
+		assertEquals(true, loop.deadline - (START + Loop.NANO) <= 0, "still behind after the kept updates");
+	}
+	
+	@Test
+	public void updatesFollowExactPeriod()
+	{
+		Counter counter = new Counter();
+		LoopScheduler scheduler = new LoopScheduler(1);
+		ScheduledLoop loop = scheduler.schedule(counter, HERTZ);
+		
+		/*
+		 * a 60 Hz period truncated to whole nanoseconds would fit a 61st update into a second.
+		 */
+		for (long t = START; t < START + Loop.NANO; t += 1_000_000L)
+		{
+			loop.dispatch(t, Integer.MAX_VALUE);
+		}
+		loop.dispatch(START + Loop.NANO - 1, Integer.MAX_VALUE);
+		assertEquals(60, counter.updates, "updates in the first second at 60 Hz");
+	}
+	
+	/*
+	 * dispatches once to start the loop, then once after a one second stall
+	 */
+	private ScheduledLoop stalled(Counter counter, CatchUpPolicy policy)
+	{
+		LoopScheduler scheduler = new LoopScheduler(1);
+		ScheduledLoop loop = scheduler.schedule(counter, HERTZ);
+		loop.setMaxUpdates(MAX);
+		loop.setCatchUpPolicy(policy);
+		loop.dispatch(START, Integer.MAX_VALUE);
+		loop.dispatch(START + Loop.NANO, Integer.MAX_VALUE);
+		return loop;
+	}
+	
+	private void catchUp(ScheduledLoop loop, long now)
+	{
+		for (int i=0; i<100 && loop.deadline - now <= 0; i++)
+		{
+			loop.dispatch(now, Integer.MAX_VALUE);
+		}
+	}
+	
+	private static class Counter implements LoopListener
+	{
+		long updates = 0;
+		
+		@Override
+		public void onInit() {}
+		
+		@Override
+		public void onUpdate(double time)
+		{
+			updates++;
+		}
+		
+		@Override
+		public void onRender(double interpolation) {}
+		
+		@Override
+		public void onDispose() {}
+	}
+}
@@ -0,0 +1,92 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.replay;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.nullpointerworks.game.LoopEngine;
+import com.nullpointerworks.game.LoopListener;
+import com.nullpointerworks.game.Timestep;
+import com.nullpointerworks.game.time.VirtualClock;
+
+/**
+ * Checks that a journal attached to a loop in the middle of a session plays back only the ticks it recorded, with every record at the tick it was made in.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+public class ReplayDriverTest
+{
+	private static final int BEFORE = 10;
+	private static final int RECORDED = 5;
+	private static final int INPUT = 1;
+	
+	@TempDir
+	Path dir;
+	
+	@Test
+	public void journalAttachedMidSessionReplaysFromItsFirstTick() throws IOException
+	{
+		Path file = dir.resolve("session.journal");
+		Game game = new Game();
+		LoopEngine engine = new LoopEngine(game, Timestep.FIXED);
+		engine.setClock(new VirtualClock());
+		engine.advance(BEFORE);
+		
+		try (InputJournal journal = new InputJournal(file))
+		{
+			game.journal = journal;
+			engine.setJournal(journal);
+			engine.advance(RECORDED);
+			engine.setJournal(null);
+		}
+		
+		Game replayed = new Game();
+		ReplayDriver driver = new ReplayDriver(new JournalReader(file), replayed, replayed);
+		driver.run();
+		
+		assertEquals(RECORDED, driver.getTicks(), "ticks played back");
+		assertEquals(RECORDED, replayed.updates, "updates played back");
+		assertEquals(RECORDED, replayed.matched, "records played back at the tick they were made in");
+	}
+	
+	/*
+	 * records the update count while recording, and compares it against the replayed update count
+	 */
+	private static class Game implements LoopListener, ReplayListener
+	{
+		InputJournal journal = null;
+		int updates = 0;
+		int matched = 0;
+		
+		@Override
+		public void onInit() {}
+		
+		@Override
+		public void onUpdate(double time)
+		{
+			if (journal != null) journal.record(INPUT, updates);
+			updates++;
+		}
+		
+		@Override
+		public void onRender(double interpolation) {}
+		
+		@Override
+		public void onDispose() {}
+		
+		@Override
+		public void onRecord(JournalReader record)
+		{
+			if (record.getType() == INPUT && record.getInt() == BEFORE + updates) matched++;
+		}
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.system;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Checks that rolling a {@code GameSystem} back through its {@code SnapshotRing} and simulating forward again gives the same state as a run that never needed to, and that an oversized ring is refused.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+public class SnapshotRingTest
+{
+	private static final double STEP = 1d / 60d;
+	private static final int ELEMENTS = 100;
+	private static final int TICKS = 30;
+	private static final int INPUT_TICK = 10;
+	private static final int LATE = 5;
+	
+	@Test
+	public void lateRollbackMatchesReference()
+	{
+		double[] known = new double[TICKS];
+		known[INPUT_TICK] = 4d;
+		SnapshotRing reference = run(known, -1);
+		
+		double[] late = new double[TICKS];
+		SnapshotRing rolled = run(late, INPUT_TICK + LATE);
+		
+		assertEquals(reference.getState().duplicate().clear(), rolled.getState().duplicate().clear(), 
+				"state after a "+LATE+" tick rollback differs from the reference run");
+	}
+	
+	@Test
+	public void oversizedRingIsRefused()
+	{
+		assertThrows(IllegalArgumentException.class, () -> new SnapshotRing(1 << 20, 4096));
+		assertThrows(IllegalArgumentException.class, () -> new SnapshotRing(-8, 4));
+	}
+	
+	/*
+	 * runs a system for all ticks. when late is zero or more, the input at INPUT_TICK 
+	 * is only set at that tick, followed by a rollback to apply it.
+	 */
+	private static SnapshotRing run(double[] inputs, int late)
+	{
+		SnapshotRing ring = new SnapshotRing(ELEMENTS * 16, 8);
+		GameSystem system = new GameSystem();
+		system.setSnapshots(ring);
+		int[] ids = new int[ELEMENTS];
+		for (int i=0; i<ELEMENTS; i++)
+		{
+			system.addElement(new Body(ring, inputs, i), i);
+			ids[i] = i;
+		}
+		system.enableElements(ids);
+		system.render(0d);
+		
+		for (int t=0; t<TICKS; t++)
+		{
+			if (t == late)
+			{
+				inputs[INPUT_TICK] = 4d;
+				assertTrue(system.rollback(INPUT_TICK, STEP), "tick "+INPUT_TICK+" is no longer in the ring");
+			}
+			system.update(STEP);
+		}
+		return ring;
+	}
+	
+	/*
+	 * accelerates with the input of the current tick, and moves with its velocity
+	 */
+	private static class Body extends GameElement
+	{
+		private final SnapshotRing ring;
+		private final double[] inputs;
+		private final double mass;
+		private final int offset;
+		
+		private Body(SnapshotRing ring, double[] inputs, int index)
+		{
+			this.ring = ring;
+			this.inputs = inputs;
+			mass = 1d + index * 0.25d;
+			offset = ring.allocate(16);
+		}
+		
+		@Override
+		public void onUpdate(double time)
+		{
+			ByteBuffer state = ring.getState();
+			double force = inputs[(int)getParent().getTick()];
+			double velocity = state.getDouble(offset + 8) + (force / mass - 0.5d * state.getDouble(offset + 8)) * time;
+			state.putDouble(offset + 8, velocity);
+			state.putDouble(offset, state.getDouble(offset) + velocity * time);
+		}
+		
+		@Override
+		public void onInit() {}
+		
+		@Override
+		public void onRender(double interpolation) {}
+		
+		@Override
+		public void onDispose() {}
+	}
+}
@@ -0,0 +1,83 @@
+package exp.nullpointerworks.game.tween;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+
+import org.junit.jupiter.api.Test;
+
+import com.sun.management.ThreadMXBean;
+
+/**
+ * checks that building, playing and releasing tweens through a pool doesn't allocate once the pool has been filled.<br>
+ * the bytes allocated by the test thread are counted around many cycles, after a warm-up that fills the pool and lets the jit compile the cycles.
+ */
+public class TweenPoolTest
+{
+	private static final float STEP = 1f / 60f;
+	private static final int FRAMES = 10;
+	private static final int WARMUP = 200_000;
+	private static final int CYCLES = 100_000;
+	
+	private final TweenPool pool = new TweenPool();
+	private final TweenBuilder builder = new TweenBuilder(pool);
+	private final Tween reused = new Tween(0f);
+	private float sink = 0f;
+	
+	@Test
+	public void pooledCyclesDoNotAllocate()
+	{
+		ThreadMXBean threads = (ThreadMXBean)ManagementFactory.getThreadMXBean();
+		assumeTrue(threads.isThreadAllocatedMemorySupported(), "this jvm can't count allocated bytes per thread");
+		threads.setThreadAllocatedMemoryEnabled(true);
+		long id = Thread.currentThread().getId();
+		
+		for (int i=0; i<WARMUP; i++)
+		{
+			pooled();
+			rebuilt();
+		}
+		
+		// the cost of the measurement itself
+		long overhead = Long.MAX_VALUE;
+		for (int i=0; i<10; i++)
+		{
+			long start = threads.getThreadAllocatedBytes(id);
+			overhead = Math.min(overhead, threads.getThreadAllocatedBytes(id) - start);
+		}
+		
+		long start = threads.getThreadAllocatedBytes(id);
+		for (int i=0; i<CYCLES; i++) pooled();
+		long pooled = threads.getThreadAllocatedBytes(id) - start - overhead;
+		
+		start = threads.getThreadAllocatedBytes(id);
+		for (int i=0; i<CYCLES; i++) rebuilt();
+		long rebuilt = threads.getThreadAllocatedBytes(id) - start - overhead;
+		
+		assertEquals(0L, pooled, "bytes allocated by pooled tweens in "+CYCLES+" cycles");
+		assertEquals(0L, rebuilt, "bytes allocated by rebuilt tweens in "+CYCLES+" cycles");
+	}
+	
+	private void pooled()
+	{
+		Tween tween = builder.begin(0f).scale(2f, 0.02f).move(10f, 0.02f).pause(0.02f).sine(0f, 0.02f).cosine(5f, 0.02f).ease(1f, 0.02f, Easing.QUAD_IN_OUT).value(1f).build();
+		play(tween);
+		pool.release(tween);
+	}
+	
+	private void rebuilt()
+	{
+		Tween tween = builder.begin(reused, 0f).scale(2f, 0.02f).move(10f, 0.02f).pause(0.02f).sine(0f, 0.02f).cosine(5f, 0.02f).ease(1f, 0.02f, Easing.QUAD_IN_OUT).value(1f).build();
+		play(tween);
+	}
+	
+	private void play(Tween tween)
+	{
+		for (int i=0; i<FRAMES; i++)
+		{
+			tween.update(STEP);
+			sink += tween.getValue();
+		}
+	}
+}
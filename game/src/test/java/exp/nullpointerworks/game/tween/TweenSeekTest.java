@@ -0,0 +1,63 @@
+package exp.nullpointerworks.game.tween;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * checks that a tween continues from the right place after seeking, in both directions.
+ */
+public class TweenSeekTest
+{
+	private static final float STEP = 1f / 60f;
+	
+	@Test
+	public void backwardSeekRestartsLaterElements()
+	{
+		Tween tween = moves();
+		tween.seek(0f); // builds the timeline, so the next seek doesn't rebuild it and reset all elements on the way
+		play(tween, 2.5f);
+		tween.seek(0.5f);
+		assertEquals(5f, tween.getValue(), 1e-4f);
+		
+		play(tween, 1.7f);
+		assertEquals(22f, tween.getValue(), 0.5f, "value 1.7 seconds after seeking back to 0.5");
+		
+		play(tween, 0.5f);
+		assertEquals(27f, tween.getValue(), 0.5f, "value 2.2 seconds after seeking back to 0.5");
+	}
+	
+	@Test
+	public void forwardSeekContinuesFromTarget()
+	{
+		Tween tween = moves();
+		tween.seek(0f);
+		play(tween, 0.25f);
+		tween.seek(1.5f);
+		assertEquals(15f, tween.getValue(), 1e-4f);
+		
+		play(tween, 1.2f);
+		assertEquals(27f, tween.getValue(), 0.5f, "value 1.2 seconds after seeking forward to 1.5");
+	}
+	
+	/*
+	 * three moves of one second each, to 10, 20 and 30
+	 */
+	private Tween moves()
+	{
+		Tween tween = new Tween(0f);
+		tween.add( Tween.move(10f, 1f) );
+		tween.add( Tween.move(20f, 1f) );
+		tween.add( Tween.move(30f, 1f) );
+		return tween;
+	}
+	
+	private void play(Tween tween, float seconds)
+	{
+		int frames = Math.round(seconds / STEP);
+		for (int i=0; i<frames; i++)
+		{
+			tween.update(STEP);
+		}
+	}
+}
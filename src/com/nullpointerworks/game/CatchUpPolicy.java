@@ -0,0 +1,26 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game;
+
+/**
+ * Decides what a fixed time stepping loop does with the time it was unable to simulate after it has reached its maximum amount of updates in a single frame.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+public enum CatchUpPolicy
+{
+	/**
+	 * Discards all unsimulated time. The game skips ahead and continues in sync with real time from the next frame on.
+	 * @since 1.1.0
+	 */
+	DROP,
+	
+	/**
+	 * Keeps the unsimulated time to be caught up in the following frames, but never more than a single frame worth of updates. While the loop is overloaded, game time runs slower than real time. Any time beyond that single frame is discarded.
+	 * @since 1.1.0
+	 */
+	SLOW;
+}
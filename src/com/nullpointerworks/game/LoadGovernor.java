@@ -0,0 +1,267 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game;
+
+/**
+ * Adapts the amount of work a game loop does to the time it has available. The governor keeps a rolling average of the update and render durations, and from those the share of real time the loop is busy at its current update and render rates. When that load rises above the degrade threshold, the governor first renders only every second, third and so on frame up to a maximum divisor, and as a last resort lowers the update rate step by step down to a minimum. A loop that doesn't step time by a fixed update rate has the governor lower its frame rate instead. When the load drops below the recover threshold, those steps are undone in reverse order. After every step the governor holds for a number of frames, so the averages can settle before the next step.
+ * <br><br>
+ * Independent of the steps, a frame that ends behind schedule skips its render, so the next frame can start catching up sooner. No more renders are skipped in a row than the maximum divisor. Skipped renders are counted in the {@code LoopStats} of the loop, and every step is reported to the {@code LoopMonitor} of the loop.
+ * <br><br>
+ * A governor is configured before it is given to a loop, and may only be used by a single loop. All methods without a setter role are invoked by the loop thread.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ * @see LoopMonitor#onRenderDivisor(int)
+ * @see LoopMonitor#onUpdateRate(double)
+ * @see LoopMonitor#onFrameRate(double)
+ */
+public class LoadGovernor
+{
+	private double degrade_load = 0.9;
+	private double recover_load = 0.6;
+	private int max_divisor = 4;
+	private double min_hertz = 0;
+	private double hertz_step = 0.8;
+	private double smoothing = 0.05;
+	private int hold_frames = 30;
+	private boolean frame_rate = false;
+	
+	private double target_hertz = 0;
+	private double hertz = 0;
+	private int divisor = 1;
+	private double avg_update = 0;
+	private double avg_render = 0;
+	private double load = 0;
+	private long frame = 0;
+	private int skipped = 0;
+	private int hold = 0;
+	
+	/**
+	 * Creates a governor that only skips and divides renders. Use {@code setMinHz(double)} to allow it to lower the update rate as well.
+	 * @since 1.1.0
+	 */
+	public LoadGovernor() {}
+	
+	/**
+	 * Set the load thresholds as a share of real time between 0 and 1. Above the degrade threshold work is shed, below the recover threshold it's restored. By default, the loop degrades at 0.9 and recovers at 0.6.
+	 * @param degrade - the load above which the loop degrades
+	 * @param recover - the load below which the loop recovers, which should be lower than the degrade threshold
+	 * @since 1.1.0
+	 */
+	public void setThresholds(double degrade, double recover)
+	{
+		degrade_load = degrade;
+		recover_load = (recover<degrade)? recover: degrade;
+	}
+	
+	/**
+	 * Set the maximum render divisor. With a divisor of {@code n} the loop renders one in every {@code n} frames. It's also the maximum amount of renders skipped in a row when frames end behind schedule. Defaults to 4.
+	 * @param max - the maximum render divisor of one or more
+	 * @since 1.1.0
+	 */
+	public void setMaxRenderDivisor(int max)
+	{
+		max_divisor = (max<1)? 1: max;
+	}
+	
+	/**
+	 * Set the lowest update rate the governor may lower the loop to. The update rate is never raised above the rate set on the loop. Zero or a rate at or above the rate of the loop disables lowering the update rate, which is the default.
+	 * @param hertz - the minimum amount of updates per second
+	 * @since 1.1.0
+	 */
+	public void setMinHz(double hertz)
+	{
+		min_hertz = (hertz<0)? 0: hertz;
+	}
+	
+	/**
+	 * Set the factor the update rate is multiplied with for every degradation step, and divided by for every recovery step. Defaults to 0.8.
+	 * @param factor - a factor between 0 and 1
+	 * @since 1.1.0
+	 */
+	public void setHzStep(double factor)
+	{
+		hertz_step = (factor<=0 || factor>=1)? 0.8: factor;
+	}
+	
+	/**
+	 * Set the weight of the most recent duration in the rolling averages. Higher values respond faster, lower values are more stable. Defaults to 0.05.
+	 * @param alpha - a weight between 0 and 1
+	 * @since 1.1.0
+	 */
+	public void setSmoothing(double alpha)
+	{
+		smoothing = (alpha<=0 || alpha>1)? 0.05: alpha;
+	}
+	
+	/**
+	 * Set the amount of frames to wait after a step before the next step may be taken. Defaults to 30.
+	 * @param frames - the amount of frames to hold
+	 * @since 1.1.0
+	 */
+	public void setHoldFrames(int frames)
+	{
+		hold_frames = (frames<0)? 0: frames;
+	}
+	
+	/**
+	 * Returns the most recently estimated load, as a share of real time the loop is busy.
+	 * @return the estimated load
+	 * @since 1.1.0
+	 */
+	public double getLoad()
+	{
+		return load;
+	}
+	
+	/**
+	 * Returns the current render divisor.
+	 * @return the current render divisor
+	 * @since 1.1.0
+	 */
+	public int getRenderDivisor()
+	{
+		return divisor;
+	}
+	
+	/**
+	 * Returns the update rate, or frame rate, the governor currently allows.
+	 * @return the current rate per second
+	 * @since 1.1.0
+	 */
+	public double getHz()
+	{
+		return hertz;
+	}
+	
+	/**
+	 * Set {@code true} when the rate the governor lowers is the frame rate of the loop rather than its update rate. Steps are then reported with {@code onFrameRate(double)} instead of {@code onUpdateRate(double)}. Invoked by the loop when the governor is given to it.
+	 * @param state - set {@code true} to govern the frame rate, {@code false} for the update rate
+	 * @since 1.1.0
+	 */
+	public void setFrameRateGoverned(boolean state)
+	{
+		frame_rate = state;
+	}
+	
+	/**
+	 * Starts over at the given update rate, with every render enabled. Invoked by the loop when its target update rate is set.
+	 * @param hertz - the update rate set on the loop
+	 * @since 1.1.0
+	 */
+	public void reset(double hertz)
+	{
+		target_hertz = hertz;
+		this.hertz = hertz;
+		divisor = 1;
+		skipped = 0;
+		hold = hold_frames;
+	}
+	
+	/**
+	 * Adds the duration of an update to the rolling average.
+	 * @param nanos - the duration of the update in nanoseconds
+	 * @since 1.1.0
+	 */
+	public void recordUpdate(long nanos)
+	{
+		avg_update += (nanos - avg_update) * smoothing;
+	}
+	
+	/**
+	 * Adds the duration of a render to the rolling average.
+	 * @param nanos - the duration of the render in nanoseconds
+	 * @since 1.1.0
+	 */
+	public void recordRender(long nanos)
+	{
+		avg_render += (nanos - avg_render) * smoothing;
+	}
+	
+	/**
+	 * Decides whether the loop should render this frame.
+	 * @param behind - {@code true} if the loop is behind schedule
+	 * @return {@code true} to render, {@code false} to skip
+	 * @since 1.1.0
+	 */
+	public boolean shouldRender(boolean behind)
+	{
+		frame++;
+		boolean render = (frame % divisor == 0);
+		if (render && behind && skipped < max_divisor) render = false;
+		skipped = render? 0: skipped + 1;
+		return render;
+	}
+	
+	/**
+	 * Estimates the load of the loop and takes a degradation or recovery step when needed. Invoked by the loop once per frame.
+	 * @param fps - the amount of frames per second the loop runs at
+	 * @param monitor - the monitor to notify of a step, or {@code null}
+	 * @return the update rate, or frame rate, the loop should run at
+	 * @since 1.1.0
+	 */
+	public double adapt(double fps, LoopMonitor monitor)
+	{
+		load = (avg_update * hertz + avg_render * fps / divisor) * Loop.inv_NANO;
+		if (hold > 0)
+		{
+			hold--;
+			return hertz;
+		}
+		
+		double lowest = (min_hertz>0 && min_hertz<target_hertz)? min_hertz: target_hertz;
+		if (load > degrade_load)
+		{
+			if (divisor < max_divisor)
+			{
+				divisor++;
+				hold = hold_frames;
+				if (monitor != null) monitor.onRenderDivisor(divisor);
+			}
+			else if (hertz > lowest)
+			{
+				hertz = hertz * hertz_step;
+				hertz = (hertz<lowest)? lowest: hertz;
+				hold = hold_frames;
+				reportRate(monitor);
+			}
+		}
+		else if (load < recover_load)
+		{
+			/*
+			 * only recover when the load after the step is expected to stay below the degrade threshold
+			 */
+			if (hertz < target_hertz)
+			{
+				double next = hertz / hertz_step;
+				next = (next>target_hertz)? target_hertz: next;
+				if (load + avg_update * (next - hertz) * Loop.inv_NANO < degrade_load)
+				{
+					hertz = next;
+					hold = hold_frames;
+					reportRate(monitor);
+				}
+			}
+			else if (divisor > 1)
+			{
+				double extra = avg_render * fps * (1d / (divisor - 1) - 1d / divisor);
+				if (load + extra * Loop.inv_NANO < degrade_load)
+				{
+					divisor--;
+					hold = hold_frames;
+					if (monitor != null) monitor.onRenderDivisor(divisor);
+				}
+			}
+		}
+		return hertz;
+	}
+	
+	private void reportRate(LoopMonitor monitor)
+	{
+		if (monitor == null) return;
+		if (frame_rate) monitor.onFrameRate(hertz);
+		else monitor.onUpdateRate(hertz);
+	}
+}
@@ -0,0 +1,613 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game;
+
+import com.nullpointerworks.game.replay.InputJournal;
+import com.nullpointerworks.game.stats.LoopStats;
+import com.nullpointerworks.game.time.GameClock;
+import com.nullpointerworks.game.time.WaitStrategy;
+
+/**
+ * The engine that drives the {@code Asap}, {@code Fixed} and {@code Variable} game loops and their event-based counterparts. It can also be used on its own, with any {@code LoopListener} and {@code Timestep}, which is the only way to get a semi-fixed time step.
+ * <br><br>
+ * Updates and frames are scheduled against absolute deadlines. Every deadline is the previous deadline plus the exact period of the rate, which is kept as a fraction of nanoseconds, so rounding errors never add up and rates like 59.94 Hz stay exact over any length of time. A deadline is never computed from the time the loop woke up, so overshooting a deadline doesn't delay the ones after it. When the loop falls more than one period behind on its frames, it skips the missed frames instead of rushing through them.
+ * <br><br>
+ * The update and frame rate both default to 60 per second. The engine is not thread-safe, and should only be configured before it's started, or from the loop thread.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ * @see Timestep
+ */
+public class LoopEngine implements Runnable
+{
+	private final LoopListener listener;
+	private final Timestep timestep;
+	private final Period update_period = new Period();
+	private final Period frame_period = new Period();
+	private Thread thread;
+	private volatile boolean running = true;
+	private boolean rendering = true;
+	private boolean interpolated = true;
+	private boolean prepared = false;
+	private long ticks = 0;
+	private long tick_limit = Long.MAX_VALUE;
+	private double update_hertz = 60d;
+	private double frame_hertz = 60d;
+	private double target_update = 60d;
+	private double target_frame = 60d;
+	private long next_update;
+	private long last_update;
+	private long next_frame;
+	private long frame_nanotime_prev;
+	private long cycle_nanotime_prev;
+	private boolean behind = false;
+	private GameClock clock = GameClock.system();
+	private WaitStrategy wait = WaitStrategy.hybrid();
+	private LoopStats stats = new LoopStats();
+	private int max_updates = Integer.MAX_VALUE;
+	private CatchUpPolicy policy = CatchUpPolicy.DROP;
+	private long max_delta = Long.MAX_VALUE;
+	private int max_steps = 1;
+	private long hiccup_time = Long.MAX_VALUE;
+	private LoopMonitor monitor = null;
+	private LoadGovernor governor = null;
+	private InputJournal journal = null;
+	private long journal_start = 0;
+	
+	/**
+	 * Creates a new {@code LoopEngine} that drives the given listener with the given time step.
+	 * @param listener - the listener to invoke
+	 * @param timestep - how game time is stepped
+	 * @since 1.1.0
+	 */
+	public LoopEngine(LoopListener listener, Timestep timestep)
+	{
+		this.listener = listener;
+		this.timestep = timestep;
+		update_period.set(update_hertz);
+		frame_period.set(frame_hertz);
+	}
+	
+	/**
+	 * Set the amount of updates per second. With a {@code FIXED} time step, every update simulates exactly one period of this rate. With a {@code SEMI_FIXED} time step, no update simulates more than one period of this rate. A {@code VARIABLE} time step ignores it.
+	 * @param hertz - the amount of updates per second, above zero
+	 * @throws IllegalArgumentException when the rate is zero or less
+	 * @since 1.1.0
+	 */
+	public void setUpdateRate(double hertz)
+	{
+		update_period.set(hertz);
+		update_hertz = hertz;
+		target_update = hertz;
+		if (governor != null && timestep == Timestep.FIXED) governor.reset(hertz);
+	}
+	
+	/**
+	 * Returns the amount of updates per second, which may have been lowered by the {@code LoadGovernor}.
+	 * @return the current update rate
+	 * @since 1.1.0
+	 */
+	public double getUpdateRate()
+	{
+		return update_hertz;
+	}
+	
+	/**
+	 * Set the amount of frames per second. Each frame renders once. With a {@code FIXED} time step without interpolation, rendering follows the updates instead, and this rate is ignored.
+	 * @param hertz - the amount of frames per second, above zero
+	 * @throws IllegalArgumentException when the rate is zero or less
+	 * @since 1.1.0
+	 */
+	public void setFrameRate(double hertz)
+	{
+		frame_period.set(hertz);
+		frame_hertz = hertz;
+		target_frame = hertz;
+		if (governor != null && timestep != Timestep.FIXED) governor.reset(hertz);
+	}
+	
+	/**
+	 * Returns the amount of frames per second, which may have been lowered by the {@code LoadGovernor}.
+	 * @return the current frame rate
+	 * @since 1.1.0
+	 */
+	public double getFrameRate()
+	{
+		return frame_hertz;
+	}
+	
+	/**
+	 * Returns how this engine steps game time.
+	 * @return the {@code Timestep} of this engine
+	 * @since 1.1.0
+	 */
+	public Timestep getTimestep()
+	{
+		return timestep;
+	}
+	
+	/**
+	 * Set {@code false} to render only after a {@code FIXED} update has been performed, with an interpolation of 1, instead of at the frame rate. The engine then only wakes up when an update is due. Ignored by the other time steps. Interpolation is enabled by default.
+	 * @param state - set {@code true} to interpolate, {@code false} otherwise
+	 * @since 1.1.0
+	 */
+	public void setInterpolated(boolean state)
+	{
+		interpolated = state;
+	}
+	
+	/**
+	 * Set the strategy used to idle the loop thread between deadlines. By default, a {@code HybridWait} is used which parks the thread until shortly before the next deadline.
+	 * @param strategy - the {@code WaitStrategy} to idle the loop thread with
+	 * @since 1.1.0
+	 * @see WaitStrategy
+	 */
+	public void setWaitStrategy(WaitStrategy strategy)
+	{
+		wait = strategy;
+	}
+	
+	/**
+	 * Returns the strategy used to idle the loop thread between deadlines.
+	 * @return the {@code WaitStrategy} of this engine
+	 * @since 1.1.0
+	 */
+	public WaitStrategy getWaitStrategy()
+	{
+		return wait;
+	}
+	
+	/**
+	 * Set the clock this engine reads its time from. By default, the system clock is used. The clock should not be changed while the loop is running.
+	 * @param clock - the {@code GameClock} to drive this engine with
+	 * @since 1.1.0
+	 * @see GameClock
+	 */
+	public void setClock(GameClock clock)
+	{
+		this.clock = clock;
+	}
+	
+	/**
+	 * Returns the clock this engine reads its time from.
+	 * @return the {@code GameClock} of this engine
+	 * @since 1.1.0
+	 */
+	public GameClock getClock()
+	{
+		return clock;
+	}
+	
+	/**
+	 * Set {@code false} to suppress the {@code onRender(double)} invocations of this engine. Updates will continue as normal. Rendering is enabled by default.
+	 * @param state - set {@code true} to render, {@code false} otherwise
+	 * @since 1.1.0
+	 */
+	public void setRenderEnabled(boolean state)
+	{
+		rendering = state;
+	}
+	
+	/**
+	 * Set the maximum amount of updates performed in a single frame to catch up on lost time. With a {@code FIXED} time step, the {@code CatchUpPolicy} decides what happens with the remaining time. With a {@code SEMI_FIXED} time step, the remaining time is dropped. A value of zero or less removes the limit, which is the default.
+	 * @param max - the maximum amount of updates per frame
+	 * @since 1.1.0
+	 */
+	public void setMaxUpdates(int max)
+	{
+		max_updates = (max<1)? Integer.MAX_VALUE: max;
+	}
+	
+	/**
+	 * Set the policy applied when a {@code FIXED} time step has reached the maximum amount of updates per frame. By default, the remaining time is dropped.
+	 * @param policy - the {@code CatchUpPolicy} to apply
+	 * @since 1.1.0
+	 * @see CatchUpPolicy
+	 */
+	public void setCatchUpPolicy(CatchUpPolicy policy)
+	{
+		this.policy = policy;
+	}
+	
+	/**
+	 * Set the maximum time step in seconds passed to a single {@code VARIABLE} update. Longer time steps are split into equal sub-steps of at most this length, up to the maximum amount of sub-steps. Time beyond that is discarded, reported to the {@code LoopMonitor} and counted in the {@code LoopStats}. A value of zero or less removes the limit, which is the default.
+	 * @param seconds - the maximum time step in seconds
+	 * @since 1.1.0
+	 */
+	public void setMaxDelta(double seconds)
+	{
+		max_delta = (seconds<=0d)? Long.MAX_VALUE: (long)(seconds * Loop.NANO);
+	}
+	
+	/**
+	 * Set the maximum amount of updates a {@code VARIABLE} time step longer than the maximum time step is split into. By default, a long time step is clamped into a single update.
+	 * @param steps - the maximum amount of sub-steps of one or more
+	 * @since 1.1.0
+	 */
+	public void setMaxSubSteps(int steps)
+	{
+		max_steps = (steps<1)? 1: steps;
+	}
+	
+	/**
+	 * Set the gap between two cycles in seconds from which on the gap is reported as a hiccup to the {@code LoopMonitor}, and counted in the {@code LoopStats}. A value of zero or less disables hiccup detection, which is the default.
+	 * @param seconds - the minimum gap in seconds to report
+	 * @since 1.1.0
+	 */
+	public void setHiccupThreshold(double seconds)
+	{
+		hiccup_time = (seconds<=0d)? Long.MAX_VALUE: (long)(seconds * Loop.NANO);
+	}
+	
+	/**
+	 * Set the monitor to notify about the health of this engine, or {@code null} to remove it.
+	 * @param monitor - the {@code LoopMonitor} to notify
+	 * @since 1.1.0
+	 * @see LoopMonitor
+	 */
+	public void setMonitor(LoopMonitor monitor)
+	{
+		this.monitor = monitor;
+	}
+	
+	/**
+	 * Set the governor that adapts this engine to its load, or {@code null} to remove it. With a {@code FIXED} time step the governor lowers the update rate, with the other time steps it lowers the frame rate and reports it with {@code onFrameRate(double)}. The governor starts over at the target rate, which is also restored when the governor is removed.
+	 * @param governor - the {@code LoadGovernor} to adapt this engine with
+	 * @since 1.1.0
+	 * @see LoadGovernor
+	 */
+	public void setLoadGovernor(LoadGovernor governor)
+	{
+		this.governor = governor;
+		if (governor != null) governor.setFrameRateGoverned(timestep != Timestep.FIXED);
+		if (timestep == Timestep.FIXED) setUpdateRate(target_update);
+		else setFrameRate(target_frame);
+	}
+	
+	/**
+	 * Set the journal to record the input of this engine into, or {@code null} to stop recording. The engine moves the journal on to the next tick after every update, and records every change of its time step, so the session can be played back by a {@code ReplayDriver}. Ticks are counted from the moment the journal is set, so a journal attached mid-session plays back from its first tick. The input itself is recorded by the game.
+	 * @param journal - the {@code InputJournal} to record into
+	 * @since 1.1.0
+	 * @see InputJournal
+	 */
+	public void setJournal(InputJournal journal)
+	{
+		this.journal = journal;
+		journal_start = ticks;
+		if (journal != null) journal.tick(0);
+	}
+	
+	/**
+	 * Returns the amount of updates this engine has performed.
+	 * @return the amount of updates this engine has performed
+	 * @since 1.1.0
+	 */
+	public long getTicks()
+	{
+		return ticks;
+	}
+	
+	/**
+	 * Returns the timing statistics of this engine. The statistics are filled in by the loop thread and can be read from any other thread.
+	 * @return the {@code LoopStats} of this engine
+	 * @since 1.1.0
+	 * @see LoopStats
+	 */
+	public LoopStats getStats()
+	{
+		return stats;
+	}
+	
+	/**
+	 * Starts the loop on a new thread. Does nothing while the thread of a previous start is still running, even when it has been asked to stop.
+	 * @since 1.1.0
+	 */
+	public void start()
+	{
+		if (thread != null && thread.isAlive()) return;
+		running = true;
+		thread = new Thread(this);
+		thread.start();
+	}
+	
+	/**
+	 * Stops the loop after the current cycle. Safe to invoke from any thread.
+	 * @since 1.1.0
+	 */
+	public void stop()
+	{
+		running = false;
+	}
+	
+	/**
+	 * Runs the loop on the calling thread until it's stopped. The {@code onInit()} method is invoked first, and {@code onDispose()} when the loop has stopped.
+	 * @since 1.1.0
+	 */
+	@Override
+	public void run()
+	{
+		listener.onInit();
+		prepare();
+		
+		while (running)
+		{
+			cycle();
+		}
+		
+		listener.onDispose();
+	}
+	
+	/**
+	 * Runs the loop on the calling thread until the given amount of updates have been performed. When the loop has not been initialized yet, the {@code onInit()} method is invoked first. The {@code onDispose()} method is never invoked by this method.
+	 * <br><br>
+	 * In combination with a {@code VirtualClock} the loop never waits for real time to pass, which makes it run as fast as the CPU allows. This method should not be used while the loop thread is running.
+	 * @param count - the amount of updates to perform
+	 * @since 1.1.0
+	 * @see com.nullpointerworks.game.time.VirtualClock
+	 */
+	public void advance(int count)
+	{
+		if (!prepared)
+		{
+			listener.onInit();
+			prepare();
+		}
+		
+		tick_limit = ticks + count;
+		while (ticks < tick_limit)
+		{
+			cycle();
+		}
+		tick_limit = Long.MAX_VALUE;
+	}
+	
+	private void prepare()
+	{
+		prepared = true;
+		long now = clock.nanoTime();
+		frame_nanotime_prev = now;
+		cycle_nanotime_prev = now;
+		next_update = now;
+		last_update = now;
+		next_frame = now;
+		behind = false;
+		
+		/*
+		 * a variable cycle idles until the end of its frame, so the first frame ends one period from now.
+		 */
+		if (timestep != Timestep.FIXED) next_frame = frame_period.next(now);
+	}
+	
+	private void cycle()
+	{
+		long now = clock.nanoTime();
+		long gap = now - cycle_nanotime_prev;
+		cycle_nanotime_prev = now;
+		
+		/*
+		 * report gaps far beyond the target frame time.
+		 */
+		if (gap > hiccup_time)
+		{
+			stats.recordHiccup(gap);
+			if (monitor != null) monitor.onHiccup(gap);
+		}
+		
+		if (timestep == Timestep.FIXED) cycleFixed(now);
+		else cycleVariable(now);
+	}
+	
+	private void cycleFixed(long now)
+	{
+		long deadline;
+		int updates = 0;
+		double interpolation = 1d;
+		boolean due;
+		
+		/*
+		 * update for every deadline that has passed, each simulating exactly one period.
+		 * this catches up on missed time, if it happens.
+		 */
+		while (now - next_update >= 0 && ticks < tick_limit && updates < max_updates)
+		{
+			update(update_period.getSeconds());
+			last_update = next_update;
+			next_update = update_period.next(next_update);
+			updates++;
+		}
+		
+		/*
+		 * still behind after the maximum amount of updates. 
+		 * apply the catch-up policy to keep the loop from spiraling out of control.
+		 */
+		behind = now - next_update >= 0;
+		if (updates >= max_updates && behind)
+		{
+			limitCatchUp(now);
+			
+			/*
+			 * after the policy, the update that is due right now doesn't count as behind.
+			 */
+			behind = update_period.count(next_update, now) > 0;
+		}
+		
+		/*
+		 * render at the frame rate with in-between update interpolation, capped at 1(100%).
+		 * without interpolation, render after updating.
+		 */
+		if (interpolated)
+		{
+			due = now - next_frame >= 0;
+			if (due)
+			{
+				interpolation = (now - last_update) * update_period.getInverseNanos();
+				interpolation = (interpolation>1d)? 1d: interpolation;
+				next_frame = resync(frame_period, frame_period.next(next_frame), now);
+			}
+		}
+		else
+		{
+			due = updates > 0;
+		}
+		
+		if (due)
+		{
+			render(interpolation);
+			stats.recordFrame(now - frame_nanotime_prev, updates);
+			frame_nanotime_prev = now;
+		}
+		
+		/*
+		 * the governor counts frames, so it adapts only on cycles that rendered.
+		 */
+		if (governor != null && due)
+		{
+			double rate = interpolated? frame_hertz: update_hertz;
+			double hertz = governor.adapt(rate, monitor);
+			if (hertz != update_hertz)
+			{
+				update_period.set(hertz);
+				update_hertz = hertz;
+			}
+		}
+		
+		/*
+		 * idle until the next update or frame is due
+		 */
+		deadline = next_update;
+		if (interpolated && rendering && next_frame - deadline < 0) deadline = next_frame;
+		idle(deadline);
+	}
+	
+	private void cycleVariable(long now)
+	{
+		long delta = now - frame_nanotime_prev;
+		long limit_delta = max_delta;
+		int limit_steps = max_steps;
+		long dropped;
+		double timing;
+		int steps = 1;
+		int updates = 0;
+		
+		/*
+		 * a semi-fixed time step never simulates more than one update period at once.
+		 */
+		if (timestep == Timestep.SEMI_FIXED)
+		{
+			limit_delta = (long)Math.ceil(update_period.getNanos());
+			limit_delta = (limit_delta<1)? 1: limit_delta;
+			limit_steps = max_updates;
+		}
+		
+		/*
+		 * split time steps above the maximum into equal sub-steps, and discard what doesn't fit in the maximum amount of sub-steps.
+		 */
+		if (delta > limit_delta)
+		{
+			steps = (int)Math.min(limit_steps, (delta - 1) / limit_delta + 1);
+			dropped = delta - steps * limit_delta;
+			if (dropped > 0)
+			{
+				delta -= dropped;
+				stats.recordCatchUpLimit(dropped);
+				if (monitor != null) monitor.onCatchUpLimit(dropped);
+			} 
+		}
+		timing = delta * Loop.inv_NANO / steps;
+		
+		while (updates < steps && ticks < tick_limit)
+		{
+			update(timing);
+			updates++;
+		}
+		
+		/*
+		 * render once, unless the governor sheds this render because the previous cycle overran or to lower the load.
+		 */
+		render(1d);
+		stats.recordFrame(now - frame_nanotime_prev, updates);
+		frame_nanotime_prev = now;
+		
+		if (governor != null)
+		{
+			double hertz = governor.adapt(frame_hertz, monitor);
+			if (hertz != frame_hertz)
+			{
+				frame_period.set(hertz);
+				frame_hertz = hertz;
+			}
+		}
+		
+		/*
+		 * idle until the next frame is due
+		 */
+		long end = clock.nanoTime();
+		next_frame = resync(frame_period, next_frame, end);
+		behind = next_frame - end <= 0;
+		idle(next_frame);
+		next_frame = frame_period.next(next_frame);
+	}
+	
+	/*
+	 * skips the deadlines that are more than one period behind the given time, 
+	 * so a late loop continues on its grid instead of rushing through every missed deadline.
+	 */
+	private long resync(Period period, long deadline, long now)
+	{
+		long missed = period.count(deadline, now);
+		if (missed < 1) return deadline;
+		return period.skip(deadline, missed);
+	}
+	
+	private void limitCatchUp(long now)
+	{
+		long missed = update_period.count(next_update, now);
+		if (policy == CatchUpPolicy.SLOW) missed -= max_updates;
+		missed = (missed<0)? 0: missed;
+		
+		long synced = update_period.skip(next_update, missed);
+		long dropped = synced - next_update;
+		last_update += dropped;
+		next_update = synced;
+		
+		stats.recordCatchUpLimit(dropped);
+		if (monitor != null) monitor.onCatchUpLimit(dropped);
+	}
+	
+	private void update(double time)
+	{
+		if (journal != null) journal.timeStep(time);
+		long timer = System.nanoTime();
+		listener.onUpdate(time);
+		timer = System.nanoTime() - timer;
+		stats.recordUpdate(timer);
+		if (governor != null) governor.recordUpdate(timer);
+		ticks++;
+		if (journal != null) journal.tick(ticks - journal_start);
+	}
+	
+	private void render(double interpolation)
+	{
+		if (!rendering) return;
+		if (governor != null && !governor.shouldRender(behind))
+		{
+			stats.recordSkippedRender();
+			return;
+		}
+		long timer = System.nanoTime();
+		listener.onRender(interpolation);
+		timer = System.nanoTime() - timer;
+		stats.recordRender(timer);
+		if (governor != null) governor.recordRender(timer);
+	}
+	
+	private void idle(long deadline)
+	{
+		if (deadline - clock.nanoTime() > 0)
+		{
+			stats.recordOvershoot(clock.waitUntil(deadline, wait) - deadline);
+		}
+	}
+}
@@ -0,0 +1,53 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game;
+
+/**
+ * Receives notifications about the health of a game loop. All methods are invoked on the loop thread and have an empty default implementation, so only the relevant ones have to be overridden. Implementations should return quickly, since the loop is likely already struggling to keep up when they are invoked.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+public interface LoopMonitor
+{
+	/**
+	 * Invoked when a loop has performed its maximum amount of updates in a single frame and still has not caught up with real time, or when a variable time stepping loop has reached its maximum time step.
+	 * @param dropped - the amount of nanoseconds of game time that has been discarded
+	 * @since 1.1.0
+	 * @see CatchUpPolicy
+	 */
+	public default void onCatchUpLimit(long dropped) {}
+	
+	/**
+	 * Invoked when a {@code LoadGovernor} changes how often the loop renders, either to shed load or because there is headroom again.
+	 * @param divisor - the new render divisor, the loop renders one in every {@code divisor} frames
+	 * @since 1.1.0
+	 * @see LoadGovernor
+	 */
+	public default void onRenderDivisor(int divisor) {}
+	
+	/**
+	 * Invoked when a {@code LoadGovernor} changes the update rate of a fixed time stepping loop, either to shed load or because there is headroom again.
+	 * @param hertz - the new amount of updates per second
+	 * @since 1.1.0
+	 * @see LoadGovernor
+	 */
+	public default void onUpdateRate(double hertz) {}
+	
+	/**
+	 * Invoked when a {@code LoadGovernor} changes the frame rate of a variable or semi-fixed time stepping loop, either to shed load or because there is headroom again.
+	 * @param hertz - the new amount of frames per second
+	 * @since 1.1.0
+	 * @see LoadGovernor
+	 */
+	public default void onFrameRate(double hertz) {}
+	
+	/**
+	 * Invoked when the gap between two frames of a loop is far beyond its target frame time, like after a garbage collection pause, a debugger stop or a suspended process.
+	 * @param nanos - the length of the gap in nanoseconds
+	 * @since 1.1.0
+	 */
+	public default void onHiccup(long nanos) {}
+}
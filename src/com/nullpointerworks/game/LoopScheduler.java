@@ -0,0 +1,346 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The {@code LoopScheduler} hosts many fixed time stepping game loops on a small pool of worker threads. Where every {@code Fixed} or {@code FixedLoop} occupies a thread of its own, a scheduler can run thousands of loops, for example one simulation per match on a headless server, using only as many threads as there are cores.
+ * <br><br>
+ * The scheduled loops are kept in a priority queue ordered by the deadline of their next update. A worker always picks up the loop whose update has been due the longest, performs a few updates for it and puts it back in the queue. A loop that has fallen behind therefore catches up in small batches, taking turns with all other loops that are behind, instead of occupying a worker until it has caught up completely. How late each loop was picked up is reported as its lag.
+ * <pre>
+ * LoopScheduler scheduler = new LoopScheduler(4);
+ * ScheduledLoop match = scheduler.schedule(listener, 30d);
+ * scheduler.start();
+ * ...
+ * match.cancel();
+ * </pre>
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ * @see ScheduledLoop
+ */
+public class LoopScheduler
+{
+	private final ReentrantLock lock = new ReentrantLock();
+	private final Condition available = lock.newCondition();
+	private final int threads;
+	private Thread[] workers;
+	private ScheduledLoop[] heap = new ScheduledLoop[16];
+	private int size = 0;
+	private int alive = 0;
+	private int busy = 0;
+	private int batch = 1;
+	private boolean running = false;
+	
+	/**
+	 * Creates a new {@code LoopScheduler} that runs its loops on the given amount of worker threads.
+	 * @param threads - the amount of worker threads
+	 * @since 1.1.0
+	 */
+	public LoopScheduler(int threads)
+	{
+		this.threads = (threads<1)? 1: threads;
+	}
+	
+	/**
+	 * Set the maximum amount of updates a worker performs for a loop each time it picks it up. A loop that is further behind is put back in the queue after this amount of updates. Larger batches have less scheduling overhead, smaller batches share the workers more fairly between loops that are behind. The default is a single update.
+	 * @param updates - the maximum amount of updates per pick-up
+	 * @since 1.1.0
+	 */
+	public void setUpdatesPerDispatch(int updates)
+	{
+		lock.lock();
+		try
+		{
+			batch = (updates<1)? 1: updates;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Schedules a new fixed time stepping loop that drives the provided {@code LoopListener} event methods at the given rate. Loops can be scheduled before and after the scheduler has been started. The {@code onInit()} method of the listener is invoked by a worker thread right before the first update.
+	 * @param listener - the loop event listener to listen
+	 * @param hertz - the desired amount of updates per second
+	 * @return the {@code ScheduledLoop} to configure, monitor and cancel the loop with
+	 * @throws IllegalArgumentException when the rate is zero or less
+	 * @since 1.1.0
+	 */
+	public ScheduledLoop schedule(LoopListener listener, double hertz)
+	{
+		ScheduledLoop loop = new ScheduledLoop(this, listener, hertz);
+		lock.lock();
+		try
+		{
+			loop.deadline = System.nanoTime();
+			offer(loop);
+		}
+		finally
+		{
+			lock.unlock();
+		}
+		return loop;
+	}
+	
+	/**
+	 * Returns the amount of loops currently scheduled, including the ones being run by a worker.
+	 * @return the amount of scheduled loops
+	 * @since 1.1.0
+	 */
+	public int getLoopCount()
+	{
+		lock.lock();
+		try
+		{
+			return size + busy;
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Start the worker threads of this scheduler.
+	 * @since 1.1.0
+	 */
+	public void start()
+	{
+		lock.lock();
+		try
+		{
+			if (running || alive > 0) return;
+			running = true;
+			alive = threads;
+			workers = new Thread[threads];
+			for (int i=0; i<threads; i++)
+			{
+				workers[i] = new Thread(new Worker(), "LoopScheduler-"+i);
+				workers[i].start();
+			}
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+	
+	/**
+	 * Stops the worker threads of this scheduler. The loops that are still scheduled are disposed by the last worker thread to stop.
+	 * @since 1.1.0
+	 */
+	public void stop()
+	{
+		lock.lock();
+		try
+		{
+			running = false;
+			available.signalAll();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+	
+	// ====================================
+	
+	/*
+	 * moves a cancelled loop to the front of the queue so it gets disposed right away.
+	 * a loop that is being run is disposed by its worker when it's done.
+	 */
+	void cancel(ScheduledLoop loop)
+	{
+		lock.lock();
+		try
+		{
+			if (loop.cancelled) return;
+			loop.cancelled = true;
+			if (loop.index < 0) return;
+			loop.deadline = System.nanoTime();
+			siftUp(loop.index, loop);
+			if (loop.index == 0) available.signal();
+		}
+		finally
+		{
+			lock.unlock();
+		}
+	}
+	
+	private class Worker implements Runnable
+	{
+		@Override
+		public void run()
+		{
+			ScheduledLoop loop;
+			boolean last;
+			int updates;
+			
+			while (true)
+			{
+				lock.lock();
+				try
+				{
+					loop = take();
+					last = (loop == null) && (--alive == 0);
+					if (loop != null) busy++;
+					updates = batch;
+				}
+				finally
+				{
+					lock.unlock();
+				}
+				
+				if (loop == null)
+				{
+					if (last) drain();
+					return;
+				}
+				
+				if (!loop.cancelled)
+				{
+					loop.dispatch(System.nanoTime(), updates);
+				}
+				
+				/*
+				 * put the loop back in the queue, unless it has been cancelled in the meantime
+				 */
+				boolean requeue;
+				lock.lock();
+				try
+				{
+					busy--;
+					requeue = !loop.cancelled;
+					if (requeue) offer(loop);
+				}
+				finally
+				{
+					lock.unlock();
+				}
+				if (!requeue) loop.dispose();
+			}
+		}
+	}
+	
+	/*
+	 * waits until the loop at the front of the queue is due and removes it,
+	 * or returns null when the scheduler has been stopped. must hold the lock.
+	 */
+	private ScheduledLoop take()
+	{
+		while (running)
+		{
+			if (size == 0)
+			{
+				available.awaitUninterruptibly();
+				continue;
+			}
+			
+			ScheduledLoop head = heap[0];
+			long delay = head.deadline - System.nanoTime();
+			if (delay <= 0 || head.cancelled)
+			{
+				poll();
+				if (size > 0) available.signal();
+				return head;
+			}
+			
+			try
+			{
+				available.awaitNanos(delay);
+			}
+			catch (InterruptedException ex)
+			{
+				ex.printStackTrace();
+			}
+		}
+		return null;
+	}
+	
+	/*
+	 * disposes all remaining loops after the last worker has stopped
+	 */
+	private void drain()
+	{
+		ScheduledLoop loop;
+		while (true)
+		{
+			lock.lock();
+			try
+			{
+				if (running || size == 0) return;
+				loop = poll();
+				loop.cancelled = true;
+			}
+			finally
+			{
+				lock.unlock();
+			}
+			loop.dispose();
+		}
+	}
+	
+	/*
+	 * binary min-heap ordered by deadline. every loop remembers its index to allow moving it.
+	 */
+	private void offer(ScheduledLoop loop)
+	{
+		if (size == heap.length)
+		{
+			ScheduledLoop[] grown = new ScheduledLoop[size << 1];
+			System.arraycopy(heap, 0, grown, 0, size);
+			heap = grown;
+		}
+		siftUp(size++, loop);
+		if (loop.index == 0) available.signal();
+	}
+	
+	private ScheduledLoop poll()
+	{
+		ScheduledLoop head = heap[0];
+		ScheduledLoop last = heap[--size];
+		heap[size] = null;
+		if (size > 0) siftDown(0, last);
+		head.index = -1;
+		return head;
+	}
+	
+	private void siftUp(int i, ScheduledLoop loop)
+	{
+		while (i > 0)
+		{
+			int parent = (i - 1) >>> 1;
+			ScheduledLoop p = heap[parent];
+			if (loop.deadline - p.deadline >= 0) break;
+			heap[i] = p;
+			p.index = i;
+			i = parent;
+		}
+		heap[i] = loop;
+		loop.index = i;
+	}
+	
+	private void siftDown(int i, ScheduledLoop loop)
+	{
+		int half = size >>> 1;
+		while (i < half)
+		{
+			int child = (i << 1) + 1;
+			int right = child + 1;
+			if (right < size && heap[right].deadline - heap[child].deadline < 0) child = right;
+			ScheduledLoop c = heap[child];
+			if (loop.deadline - c.deadline <= 0) break;
+			heap[i] = c;
+			c.index = i;
+			i = child;
+		}
+		heap[i] = loop;
+		loop.index = i;
+	}
+}
@@ -0,0 +1,143 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game;
+
+/**
+ * The exact period of a rate, used to step absolute deadlines without drift. The rate is turned into a fraction, so the period in nanoseconds is a whole part plus a remainder over a denominator. The remainder is accumulated with every step, and an extra nanosecond is added whenever it adds up to a whole one. The {@code n}th deadline is therefore always the start plus exactly {@code n} periods rounded down to the nanosecond, no matter how many steps were taken, and rounding errors never add up.
+ * <br><br>
+ * A {@code Period} is not thread-safe. Each thread that steps deadlines should use its own.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+public final class Period
+{
+	private long whole = 1;
+	private long rem = 0;
+	private long den = 1;
+	private long acc = 0;
+	private double seconds = 0d;
+	private double nanos = 1d;
+	private double inv_nanos = 1d;
+	
+	/**
+	 * Set the rate in hertz and restart the remainder. Decimal rates like 59.94 are represented exactly, others are rounded to six decimals.
+	 * @param hertz - the rate, above zero
+	 * @throws IllegalArgumentException when the rate is zero or less
+	 * @since 1.1.0
+	 */
+	public void set(double hertz)
+	{
+		if (!(hertz > 0d))
+		{
+			throw new IllegalArgumentException("Rate must be above zero: "+hertz);
+		}
+		
+		long q = 1;
+		while (q < 1_000_000 && hertz * q * 10 <= Integer.MAX_VALUE && Math.abs(hertz * q - Math.rint(hertz * q)) > 1e-6)
+		{
+			q *= 10;
+		}
+		long p = Math.round(hertz * q);
+		p = (p<1)? 1: p;
+		
+		long num 	= Loop.NANO * q;
+		whole 		= num / p;
+		rem 		= num % p;
+		den 		= p;
+		acc 		= 0;
+		seconds 	= (double)q / p;
+		nanos 		= (double)num / p;
+		inv_nanos 	= p / (double)num;
+	}
+	
+	/**
+	 * Returns the deadline one period after the given one.
+	 * @param deadline - the current deadline in nanoseconds
+	 * @return the next deadline in nanoseconds
+	 * @since 1.1.0
+	 */
+	public long next(long deadline)
+	{
+		acc += rem;
+		if (acc >= den)
+		{
+			acc -= den;
+			return deadline + whole + 1;
+		}
+		return deadline + whole;
+	}
+	
+	/**
+	 * Returns the deadline the given amount of periods after the given one, as if {@code next(long)} was invoked that many times.
+	 * @param deadline - the current deadline in nanoseconds
+	 * @param periods - the amount of periods to skip
+	 * @return the deadline in nanoseconds after skipping
+	 * @since 1.1.0
+	 */
+	public long skip(long deadline, long periods)
+	{
+		if (periods <= 0) return deadline;
+		long next = deadline + span(periods);
+		acc = (acc + (periods % den) * rem) % den;
+		return next;
+	}
+	
+	/**
+	 * Returns the amount of whole periods from the given deadline up to the given time. A time right on a deadline counts it. Skipping this amount of periods gives the last deadline that isn't after the time.
+	 * @param deadline - the current deadline in nanoseconds
+	 * @param time - the time in nanoseconds
+	 * @return the amount of whole periods in between, or zero when the time isn't after the deadline
+	 * @since 1.1.0
+	 */
+	public long count(long deadline, long time)
+	{
+		long diff = time - deadline;
+		if (diff <= 0) return 0;
+		long periods = (long)(diff * inv_nanos);
+		if (span(periods) > diff) periods--;
+		else if (span(periods + 1) <= diff) periods++;
+		return periods;
+	}
+	
+	/*
+	 * the exact nanoseconds covered by the given amount of periods from the current remainder
+	 */
+	private long span(long periods)
+	{
+		long r = acc + (periods % den) * rem;
+		return periods * whole + (periods / den) * rem + r / den;
+	}
+	
+	/**
+	 * Returns the length of a period in seconds.
+	 * @return the length of a period in seconds
+	 * @since 1.1.0
+	 */
+	public double getSeconds()
+	{
+		return seconds;
+	}
+	
+	/**
+	 * Returns the exact length of a period in nanoseconds.
+	 * @return the length of a period in nanoseconds
+	 * @since 1.1.0
+	 */
+	public double getNanos()
+	{
+		return nanos;
+	}
+	
+	/**
+	 * Returns the amount of periods per nanosecond.
+	 * @return the inverse of the period length in nanoseconds
+	 * @since 1.1.0
+	 */
+	public double getInverseNanos()
+	{
+		return inv_nanos;
+	}
+}
@@ -0,0 +1,56 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game;
+
+/**
+ * Event interface for pipelined game loops. Updating and rendering happen on two different threads, so the render thread never reads the live simulation. Instead, the simulation thread copies everything the renderer needs into a state object after each batch of updates. The renderer then draws from the most recently published state, while the simulation continues with the next tick.
+ * @param <S> the type of the state object shared between the two threads
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+public interface PipelineListener<S>
+{
+	/**
+	 * Invoked to create one of the state objects. This method is invoked three times before the loop starts, and the state objects are reused for the lifetime of the loop.
+	 * @return a new state object
+	 * @since 1.1.0
+	 */
+	public S createState();
+	
+	/**
+	 * Invoked on the simulation thread when the loop has been initialized.
+	 * @since 1.1.0
+	 */
+	public void onInit();
+	
+	/**
+	 * Invoked on the simulation thread when the loop is forced to update.
+	 * @param time - the time elapsed between updates in seconds
+	 * @since 1.1.0
+	 */
+	public void onUpdate(double time);
+	
+	/**
+	 * Invoked on the simulation thread to copy the current simulation state into the given state object. The state object is not read by the render thread until this method returns.
+	 * @param state - the state object to write into
+	 * @since 1.1.0
+	 */
+	public void onPublish(S state);
+	
+	/**
+	 * Invoked on the render thread to render the most recently published state.
+	 * @param state - the state object to render from
+	 * @param interpolation - the render progression between updates as a factor between 0 and 1, relative to the published state
+	 * @since 1.1.0
+	 */
+	public void onRender(S state, double interpolation);
+	
+	/**
+	 * Invoked on the simulation thread when the loop is shutting down. The render thread has stopped when this method is invoked.
+	 * @since 1.1.0
+	 */
+	public void onDispose();
+}
@@ -0,0 +1,239 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game;
+
+import com.nullpointerworks.game.stats.LoopStats;
+
+/**
+ * A fixed time stepping game loop hosted by a {@code LoopScheduler}. It's obtained with {@code LoopScheduler.schedule(LoopListener, double)} and can be used to configure, monitor and cancel the loop.
+ * <br><br>
+ * A scheduled loop doesn't own a thread. Each time an update is due, one of the scheduler's worker threads performs the update, and optionally a render, on behalf of the loop. The listener of a scheduled loop is never invoked by two threads at the same time, and every invocation happens-after the previous one, so the listener doesn't have to be thread-safe.
+ * <br><br>
+ * How late the worker picked up the loop compared to its deadline is its lag. The lag of each dispatch is recorded as overshoot in the {@code LoopStats} of the loop, and the most recent lag is available through {@code getLag()}.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ * @see LoopScheduler
+ */
+public final class ScheduledLoop
+{
+	final LoopScheduler scheduler;
+	final LoopListener e;
+	final Period update_period = new Period();
+	final LoopStats stats = new LoopStats();
+	
+	long deadline;
+	long next_update;
+	long last_update;
+	long frame_nanotime_prev;
+	int catch_up = 0;
+	int index = -1;
+	boolean prepared = false;
+	volatile boolean cancelled = false;
+	volatile boolean rendering = true;
+	volatile int max_updates = Integer.MAX_VALUE;
+	volatile CatchUpPolicy policy = CatchUpPolicy.DROP;
+	volatile LoopMonitor monitor = null;
+	volatile long ticks = 0;
+	volatile long lag = 0;
+	
+	ScheduledLoop(LoopScheduler scheduler, LoopListener listener, double hertz)
+	{
+		this.scheduler 	= scheduler;
+		e 				= listener;
+		update_period.set(hertz);
+	}
+	
+	/**
+	 * Set {@code false} to suppress the {@code onRender(double)} invocations of this loop. Updates will continue as normal. Rendering is enabled by default.
+	 * @param state - set {@code true} to render, {@code false} otherwise
+	 * @since 1.1.0
+	 */
+	public void setRenderEnabled(boolean state)
+	{
+		rendering = state;
+	}
+	
+	/**
+	 * Set the maximum amount of updates this loop may fall behind on. When the loop is further behind, the {@code CatchUpPolicy} decides what happens with the remaining time. A value of zero or less removes the limit, which is the default.
+	 * @param max - the maximum amount of updates to catch up on
+	 * @since 1.1.0
+	 */
+	public void setMaxUpdates(int max)
+	{
+		max_updates = (max<1)? Integer.MAX_VALUE: max;
+	}
+	
+	/**
+	 * Set the policy applied when the maximum amount of updates to catch up on has been exceeded. By default, the remaining time is dropped.
+	 * @param policy - the {@code CatchUpPolicy} to apply
+	 * @since 1.1.0
+	 * @see CatchUpPolicy
+	 */
+	public void setCatchUpPolicy(CatchUpPolicy policy)
+	{
+		this.policy = policy;
+	}
+	
+	/**
+	 * Set the monitor to notify about the health of this loop, or {@code null} to remove it. The monitor is invoked on the worker thread that runs the loop.
+	 * @param monitor - the {@code LoopMonitor} to notify
+	 * @since 1.1.0
+	 * @see LoopMonitor
+	 */
+	public void setMonitor(LoopMonitor monitor)
+	{
+		this.monitor = monitor;
+	}
+	
+	/**
+	 * Returns the amount of updates this loop has performed.
+	 * @return the amount of updates this loop has performed
+	 * @since 1.1.0
+	 */
+	public long getTicks()
+	{
+		return ticks;
+	}
+	
+	/**
+	 * Returns how late in nanoseconds the most recent update of this loop was performed compared to when it was due.
+	 * @return the most recent lag in nanoseconds
+	 * @since 1.1.0
+	 */
+	public long getLag()
+	{
+		return lag;
+	}
+	
+	/**
+	 * Returns the timing statistics of this loop. The overshoot histogram holds the lag of each dispatch.
+	 * @return the {@code LoopStats} of this loop
+	 * @since 1.1.0
+	 * @see LoopStats
+	 */
+	public LoopStats getStats()
+	{
+		return stats;
+	}
+	
+	/**
+	 * Returns {@code true} if this loop has been cancelled.
+	 * @return {@code true} if this loop has been cancelled, {@code false} otherwise
+	 * @since 1.1.0
+	 */
+	public boolean isCancelled()
+	{
+		return cancelled;
+	}
+	
+	/**
+	 * Removes this loop from its scheduler. The {@code onDispose()} method of the listener is invoked shortly after on one of the worker threads, unless the loop never got to initialize.
+	 * @since 1.1.0
+	 */
+	public void cancel()
+	{
+		scheduler.cancel(this);
+	}
+	
+	/*
+	 * performs the updates that are due, up to the given amount, and renders once.
+	 * invoked by a single worker thread at a time.
+	 */
+	void dispatch(long nanotime_curr, int batch)
+	{
+		long timer;
+		int updates = 0;
+		double interpolation;
+		
+		if (!prepared)
+		{
+			prepared = true;
+			e.onInit();
+			frame_nanotime_prev = nanotime_curr;
+			last_update = nanotime_curr;
+			next_update = nanotime_curr;
+			deadline = nanotime_curr;
+		}
+		
+		lag = nanotime_curr - deadline;
+		stats.recordOvershoot( (lag<0)? 0: lag );
+		
+		/*
+		 * update for every deadline that has passed, each simulating exactly one period. 
+		 * the updates spent catching up are counted across batches.
+		 */
+		int max = max_updates;
+		while (nanotime_curr - next_update >= 0 && updates < batch && catch_up < max)
+		{
+			timer = System.nanoTime();
+			e.onUpdate(update_period.getSeconds());
+			stats.recordUpdate(System.nanoTime() - timer);
+			last_update = next_update;
+			next_update = update_period.next(next_update);
+			ticks = ticks + 1;
+			updates++;
+			catch_up++;
+		}
+		
+		/*
+		 * still behind after the maximum amount of updates. 
+		 * apply the catch-up policy to keep the loop from spiraling out of control.
+		 */
+		if (nanotime_curr - next_update < 0)
+		{
+			catch_up = 0;
+		}
+		else if (catch_up >= max)
+		{
+			limitCatchUp(nanotime_curr, max);
+			catch_up = 0;
+		}
+		
+		if (rendering)
+		{
+			interpolation = (nanotime_curr - last_update) * update_period.getInverseNanos();
+			interpolation = (interpolation>1d)? 1d: interpolation;
+			timer = System.nanoTime();
+			e.onRender(interpolation);
+			stats.recordRender(System.nanoTime() - timer);
+		}
+		stats.recordFrame(nanotime_curr - frame_nanotime_prev, updates);
+		frame_nanotime_prev = nanotime_curr;
+		
+		/*
+		 * due again as soon as the next update is. when still behind, the deadline is in the past
+		 * and the loop is picked up again after any loop that is even further behind.
+		 */
+		deadline = next_update;
+	}
+	
+	/*
+	 * drop resyncs to the current time, slow keeps the maximum amount of updates due
+	 */
+	private void limitCatchUp(long nanotime_curr, int max)
+	{
+		long missed = update_period.count(next_update, nanotime_curr);
+		if (policy == CatchUpPolicy.SLOW) missed -= max;
+		missed = (missed<0)? 0: missed;
+		
+		long synced = update_period.skip(next_update, missed);
+		long dropped = synced - next_update;
+		last_update += dropped;
+		next_update = synced;
+		
+		stats.recordCatchUpLimit(dropped);
+		LoopMonitor m = monitor;
+		if (m != null) m.onCatchUpLimit(dropped);
+	}
+	
+	/*
+	 * invoked once by a worker thread after the loop has been removed from the scheduler
+	 */
+	void dispose()
+	{
+		if (prepared) e.onDispose();
+	}
+}
@@ -0,0 +1,33 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game;
+
+/**
+ * Decides how a {@code LoopEngine} steps game time.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ * @see LoopEngine
+ */
+public enum Timestep
+{
+	/**
+	 * Updates at the update rate with a constant time step, performing as many updates as needed to keep up with real time. Renders at the frame rate, with the progression between the last and the next update as interpolation. Best suited for simulations and heavy game logic.
+	 * @since 1.1.0
+	 */
+	FIXED,
+	
+	/**
+	 * Performs one update and one render per frame at the frame rate. Every update gets the real time elapsed since the previous frame as time step. Best suited for lightweight games that need precise timing at high frame rates.
+	 * @since 1.1.0
+	 */
+	VARIABLE,
+	
+	/**
+	 * Like {@code VARIABLE}, performs one render per frame at the frame rate, but splits the real time elapsed since the previous frame into equal updates that are never longer than the period of the update rate. Keeps the time step bounded for physics, without the need to interpolate.
+	 * @since 1.1.0
+	 */
+	SEMI_FIXED;
+}
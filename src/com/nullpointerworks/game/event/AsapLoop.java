@@ -5,25 +5,27 @@
  */
 package com.nullpointerworks.game.event;
 
+import com.nullpointerworks.game.CatchUpPolicy;
+import com.nullpointerworks.game.LoopEngine;
 import com.nullpointerworks.game.LoopListener;
+import com.nullpointerworks.game.LoopMonitor;
+import com.nullpointerworks.game.Timestep;
+import com.nullpointerworks.game.stats.LoopStats;
+import com.nullpointerworks.game.time.GameClock;
+import com.nullpointerworks.game.time.WaitStrategy;
 
 /**
  * The ASAP(As Soon As Possible) loop is a minimalistic implementation of a game loop. The key advantage of this loop is it's simplicity with very little overhead time. It's great for general purpose applications or games that don't depend on timing accuracy. 
  * <br><br>
  * It has fixed time stepping and updates may occur more frequent to compensate for lost time. When an update occurs it will also call {@code onRender(double)} afterwards. This low granularity of update time can sometimes make it appear faster or slower on different machines. To increase time granularity, either increase the frame rate, or use a different type of game loop. This implementation does not provide any means of interpolating between rendering. This makes it not well suites for simulations. 
+ * <br><br>
+ * Since 1.1.0, this loop is a facade over a {@code LoopEngine} with a {@code FIXED} time step without interpolation, which schedules updates against drift-free absolute deadlines.
  * @author Michiel Drost - Nullpointer Works
  * @since 1.0.0
  */
 public class AsapLoop implements Runnable
 {
-	private final long NANO 		= 1_000_000_000;// 10^9
-	private final double inv_NANO 	= 1.0 / NANO;	// 10^-9
-	
-	private Thread thread;
-	private boolean running 	= false;
-	private double UPDATE_CAP 	= 1d / 60d;
-	private int SLEEP_TIME 		= (int)(UPDATE_CAP*1000d);
-	private LoopListener e;
+	private final LoopEngine engine;
 	
 	/**
 	 * Creates a new {@code AsapLoop} object that drives the provided {@code LoopListener} event methods.
@@ -33,7 +35,9 @@ public class AsapLoop implements Runnable
 	 */
 	public AsapLoop(LoopListener looplistener, int fps)
 	{
-		e = looplistener;
+		engine = new LoopEngine(looplistener, Timestep.FIXED);
+		engine.setInterpolated(false);
+		engine.setWaitStrategy(WaitStrategy.sleep());
 		setTargetFPS(fps);
 	}
 	
@@ -44,8 +48,112 @@ public class AsapLoop implements Runnable
 	 */
 	public void setTargetFPS(int fps) 
 	{
-		UPDATE_CAP	= 1d / (double)fps;
-		SLEEP_TIME	= (int)(UPDATE_CAP*1000d) - 1;
+		engine.setUpdateRate(fps);
+	}
+	
+	/**
+	 * Set the strategy used to idle the loop thread between frames. By default, a {@code SleepWait} is used.
+	 * @param strategy - the {@code WaitStrategy} to idle the loop thread with
+	 * @since 1.1.0
+	 * @see WaitStrategy
+	 */
+	public void setWaitStrategy(WaitStrategy strategy)
+	{
+		engine.setWaitStrategy(strategy);
+	}
+	
+	/**
+	 * Returns the strategy used to idle the loop thread between frames.
+	 * @return the {@code WaitStrategy} of this loop
+	 * @since 1.1.0
+	 */
+	public WaitStrategy getWaitStrategy()
+	{
+		return engine.getWaitStrategy();
+	}
+	
+	/**
+	 * Set the clock this loop reads its time from. By default, the system clock is used. The clock should not be changed while the loop is running.
+	 * @param clock - the {@code GameClock} to drive this loop with
+	 * @since 1.1.0
+	 * @see GameClock
+	 */
+	public void setClock(GameClock clock)
+	{
+		engine.setClock(clock);
+	}
+	
+	/**
+	 * Returns the clock this loop reads its time from.
+	 * @return the {@code GameClock} of this loop
+	 * @since 1.1.0
+	 */
+	public GameClock getClock()
+	{
+		return engine.getClock();
+	}
+	
+	/**
+	 * Set {@code false} to suppress the {@code onRender(double)} invocations of this loop. Updates will continue as normal. Rendering is enabled by default.
+	 * @param state - set {@code true} to render, {@code false} otherwise
+	 * @since 1.1.0
+	 */
+	public void setRenderEnabled(boolean state)
+	{
+		engine.setRenderEnabled(state);
+	}
+	
+	/**
+	 * Set the maximum amount of updates performed in a single frame to catch up on lost time. When the loop is still behind after this amount of updates, the {@code CatchUpPolicy} decides what happens with the remaining time. This prevents the loop from freezing up when updates take longer than the time they simulate. A value of zero or less removes the limit, which is the default.
+	 * @param max - the maximum amount of updates per frame
+	 * @since 1.1.0
+	 */
+	public void setMaxUpdates(int max)
+	{
+		engine.setMaxUpdates(max);
+	}
+	
+	/**
+	 * Set the policy applied when the maximum amount of updates per frame has been reached. By default, the remaining time is dropped.
+	 * @param policy - the {@code CatchUpPolicy} to apply
+	 * @since 1.1.0
+	 * @see CatchUpPolicy
+	 */
+	public void setCatchUpPolicy(CatchUpPolicy policy)
+	{
+		engine.setCatchUpPolicy(policy);
+	}
+	
+	/**
+	 * Set the monitor to notify about the health of this loop, or {@code null} to remove it.
+	 * @param monitor - the {@code LoopMonitor} to notify
+	 * @since 1.1.0
+	 * @see LoopMonitor
+	 */
+	public void setMonitor(LoopMonitor monitor)
+	{
+		engine.setMonitor(monitor);
+	}
+	
+	/**
+	 * Returns the amount of updates this loop has performed.
+	 * @return the amount of updates this loop has performed
+	 * @since 1.1.0
+	 */
+	public long getTicks()
+	{
+		return engine.getTicks();
+	}
+	
+	/**
+	 * Returns the timing statistics of this loop. The statistics are filled in by the loop thread and can be read from any other thread.
+	 * @return the {@code LoopStats} of this loop
+	 * @since 1.1.0
+	 * @see LoopStats
+	 */
+	public LoopStats getStats()
+	{
+		return engine.getStats();
 	}
 	
 	/**
@@ -54,8 +162,7 @@ public class AsapLoop implements Runnable
 	 */
 	public void start()
 	{
-		thread = new Thread(this);
-		thread.start();
+		engine.start();
 	}
 	
 	/**
@@ -64,54 +171,25 @@ public class AsapLoop implements Runnable
 	 */
 	public void stop()
 	{
-		running = false;
+		engine.stop();
 	}
 	
 	@Override
 	public void run()
 	{
-		running = true;
-		boolean render = false;
-		double d_Time = 0; // delta time
-		double s_Time = 0; // spare unprocessed time
-		double c_Time = 0; // current time
-		double p_Time = System.nanoTime() * inv_NANO; // previous time
-		
-		e.onInit();
-		
-		while(running)
-		{
-			render = false;
-			c_Time = System.nanoTime() * inv_NANO;
-			d_Time = c_Time - p_Time;
-			p_Time = c_Time;
-			
-			s_Time += d_Time;
-			
-			while(s_Time >= UPDATE_CAP)
-			{
-				s_Time -= UPDATE_CAP;
-				render = true;
-				e.onUpdate(UPDATE_CAP);
-			}
-			
-			if (render)
-			{
-				e.onRender(1.0);
-			}
-			else
-			{
-				try 
-				{
-					Thread.sleep(SLEEP_TIME);
-				} 
-				catch (InterruptedException e) 
-				{
-					e.printStackTrace();
-				}
-			}
-		}
-		
-		e.onDispose();
+		engine.run();
+	}
+	
+	/**
+	 * Runs the game loop on the calling thread until the given amount of updates have been performed. When the loop has not been initialized yet, the {@code onInit()} method of the listener is invoked first. The {@code onDispose()} method is never invoked by this method.
+	 * <br><br>
+	 * In combination with a {@code VirtualClock} the loop never waits for real time to pass, which makes it run as fast as the CPU allows. This method should not be used while the loop thread is running.
+	 * @param count - the amount of updates to perform
+	 * @since 1.1.0
+	 * @see com.nullpointerworks.game.time.VirtualClock
+	 */
+	public void advance(int count)
+	{
+		engine.advance(count);
 	}
 }
@@ -5,30 +5,30 @@
  */
 package com.nullpointerworks.game.event;
 
+import com.nullpointerworks.game.CatchUpPolicy;
+import com.nullpointerworks.game.LoadGovernor;
+import com.nullpointerworks.game.LoopEngine;
 import com.nullpointerworks.game.LoopListener;
+import com.nullpointerworks.game.LoopMonitor;
+import com.nullpointerworks.game.Timestep;
+import com.nullpointerworks.game.replay.InputJournal;
+import com.nullpointerworks.game.stats.LoopStats;
+import com.nullpointerworks.game.time.GameClock;
+import com.nullpointerworks.game.time.WaitStrategy;
 
 /** 
  * The Fixed game loop class provides between-update frame interpolation. It's best suites for heavy game logic and simulations. 
  * <br><br>
  * It provides fixed time stepping and it may update more frequent to compensate for lost time in the previous cycle. Though this can make it appear to run faster or slower at times(like in the ASAP game loop), this is solved by utilizing between-update frame interpolation, which enabled for precise stepping between each update. The disadvantage of this type of loop is that is can be CPU intensive on some machines. Applications using a fixed game loop will probably not run well on machines that experience frequent interruptions.
- * 
+ * <br><br>
+ * Since 1.1.0, this loop is a facade over a {@code LoopEngine} with a {@code FIXED} time step, which schedules updates and frames against drift-free absolute deadlines.
  * @author Michiel Drost - Nullpointer Works
  * @since 1.0.0
  */
 public class FixedLoop implements Runnable
 {
-	private final long NANO = 1_000_000_000;	// 10^9
-	
-	private Thread thread;
-	private double game_hertz;
-	private int game_fps;
-	private long ideal_render_time;
-	private long ideal_update_time;
-	private double inv_ideal_update_time;
-	private double inv_game_hertz;
-	private boolean running = true;
-	private LoopListener e;
-
+	private final LoopEngine engine;
+	
 	/**
 	 * Creates a new {@code FixedLoop} object that drives the provided {@code LoopListener} event methods.
 	 * @param looplistener - the loop event listener to listen
@@ -38,7 +38,7 @@ public class FixedLoop implements Runnable
 	 */
 	public FixedLoop(LoopListener looplistener, int fps, double hertz)
 	{
-		e = looplistener;
+		engine = new LoopEngine(looplistener, Timestep.FIXED);
 		setTargetFPS(fps);
 		setTargetHz(hertz);
 	}
@@ -50,8 +50,7 @@ public class FixedLoop implements Runnable
 	 */
 	public void setTargetFPS(int fps) 
 	{
-		game_fps = fps;
-		ideal_render_time = NANO / game_fps;
+		engine.setFrameRate(fps);
 	}
 	
 	/**
@@ -61,20 +60,143 @@ public class FixedLoop implements Runnable
 	 */
 	public void setTargetHz(double hertz) 
 	{
-		game_hertz 				= hertz;
-		inv_game_hertz 			= 1d / game_hertz;
-		ideal_update_time 		= (long)((double)NANO * inv_game_hertz);
-		inv_ideal_update_time 	= 1d / ideal_update_time;
+		engine.setUpdateRate(hertz);
 	}
 
+	/**
+	 * Set the strategy used to idle the loop thread between frames. By default, a {@code HybridWait} is used which parks the thread until shortly before the next frame is due.
+	 * @param strategy - the {@code WaitStrategy} to idle the loop thread with
+	 * @since 1.1.0
+	 * @see WaitStrategy
+	 */
+	public void setWaitStrategy(WaitStrategy strategy)
+	{
+		engine.setWaitStrategy(strategy);
+	}
+	
+	/**
+	 * Returns the strategy used to idle the loop thread between frames.
+	 * @return the {@code WaitStrategy} of this loop
+	 * @since 1.1.0
+	 */
+	public WaitStrategy getWaitStrategy()
+	{
+		return engine.getWaitStrategy();
+	}
+	
+	/**
+	 * Set the clock this loop reads its time from. By default, the system clock is used. The clock should not be changed while the loop is running.
+	 * @param clock - the {@code GameClock} to drive this loop with
+	 * @since 1.1.0
+	 * @see GameClock
+	 */
+	public void setClock(GameClock clock)
+	{
+		engine.setClock(clock);
+	}
+	
+	/**
+	 * Returns the clock this loop reads its time from.
+	 * @return the {@code GameClock} of this loop
+	 * @since 1.1.0
+	 */
+	public GameClock getClock()
+	{
+		return engine.getClock();
+	}
+	
+	/**
+	 * Set {@code false} to suppress the {@code onRender(double)} invocations of this loop. Updates will continue as normal. Rendering is enabled by default.
+	 * @param state - set {@code true} to render, {@code false} otherwise
+	 * @since 1.1.0
+	 */
+	public void setRenderEnabled(boolean state)
+	{
+		engine.setRenderEnabled(state);
+	}
+	
+	/**
+	 * Set the maximum amount of updates performed in a single frame to catch up on lost time. When the loop is still behind after this amount of updates, the {@code CatchUpPolicy} decides what happens with the remaining time. This prevents the loop from freezing up when updates take longer than the time they simulate. A value of zero or less removes the limit, which is the default.
+	 * @param max - the maximum amount of updates per frame
+	 * @since 1.1.0
+	 */
+	public void setMaxUpdates(int max)
+	{
+		engine.setMaxUpdates(max);
+	}
+	
+	/**
+	 * Set the policy applied when the maximum amount of updates per frame has been reached. By default, the remaining time is dropped.
+	 * @param policy - the {@code CatchUpPolicy} to apply
+	 * @since 1.1.0
+	 * @see CatchUpPolicy
+	 */
+	public void setCatchUpPolicy(CatchUpPolicy policy)
+	{
+		engine.setCatchUpPolicy(policy);
+	}
+	
+	/**
+	 * Set the monitor to notify about the health of this loop, or {@code null} to remove it.
+	 * @param monitor - the {@code LoopMonitor} to notify
+	 * @since 1.1.0
+	 * @see LoopMonitor
+	 */
+	public void setMonitor(LoopMonitor monitor)
+	{
+		engine.setMonitor(monitor);
+	}
+	
+	/**
+	 * Set the governor that adapts this loop to its load, or {@code null} to remove it. The governor starts over at the target update rate, which is also restored when the governor is removed. Without a governor, the loop renders every frame and never lowers its update rate.
+	 * @param governor - the {@code LoadGovernor} to adapt this loop with
+	 * @since 1.1.0
+	 * @see LoadGovernor
+	 */
+	public void setLoadGovernor(LoadGovernor governor)
+	{
+		engine.setLoadGovernor(governor);
+	}
+	
+	/**
+	 * Set the journal to record the input of this loop into, or {@code null} to stop recording. The loop moves the journal on to the next tick after every update, and records every change of its time step, so the session can be played back by a {@code ReplayDriver}. Ticks are counted from the moment the journal is set. The input itself is recorded by the game.
+	 * @param journal - the {@code InputJournal} to record into
+	 * @since 1.1.0
+	 * @see InputJournal
+	 */
+	public void setJournal(InputJournal journal)
+	{
+		engine.setJournal(journal);
+	}
+	
+	/**
+	 * Returns the amount of updates this loop has performed.
+	 * @return the amount of updates this loop has performed
+	 * @since 1.1.0
+	 */
+	public long getTicks()
+	{
+		return engine.getTicks();
+	}
+	
+	/**
+	 * Returns the timing statistics of this loop. The statistics are filled in by the loop thread and can be read from any other thread.
+	 * @return the {@code LoopStats} of this loop
+	 * @since 1.1.0
+	 * @see LoopStats
+	 */
+	public LoopStats getStats()
+	{
+		return engine.getStats();
+	}
+	
 	/**
 	 * Start the game loop in a new thread.
 	 * @since 1.0.0
 	 */
 	public void start()
 	{
-		thread = new Thread(this);
-		thread.start();
+		engine.start();
 	}
 
 	/**
@@ -83,59 +205,25 @@ public class FixedLoop implements Runnable
 	 */
 	public void stop()
 	{
-		running = false;
+		engine.stop();
 	}
 	
 	@Override
 	public void run() 
 	{
-		long nanotime_curr;
-		long yield_step;
-		long update_nanotime_prev;
-		long render_nanotime_prev;
-		double interpolation;
-		
-		e.onInit();
-		update_nanotime_prev = System.nanoTime() - ideal_update_time;
-		
-		while (running)
-		{
-			/*
-			 * get time stamp
-			 * update logic while/if we are allowed.
-			 * this will catch up on missed time, if it happens. 
-			 * for example, some process on your OS halted the game for a moment.
-			 */
-			nanotime_curr = System.nanoTime();
-			
-			while( nanotime_curr - update_nanotime_prev > ideal_update_time)
-			{
-				e.onUpdate(inv_game_hertz);
-				update_nanotime_prev += ideal_update_time;
-			}
-			
-			/*
-			 * calculate in-between frame interpolation. capped at 1(100%).
-			 */
-			interpolation = (nanotime_curr - update_nanotime_prev) * inv_ideal_update_time;
-			interpolation = (interpolation>1d)? 1d: interpolation;
-			
-			/*
-			 * render with interpolation
-			 */
-			e.onRender(interpolation);
-			render_nanotime_prev = nanotime_curr; // System.nanoTime();
-			
-			/*
-			 * if both updating and rendering have been performed recently, yield the thread.
-			 */
-			do
-			{
-				//Thread.yield(); // needs testing
-				yield_step = System.nanoTime() - render_nanotime_prev;
-			}
-			while (yield_step < ideal_render_time && yield_step < ideal_update_time);
-		}
-		e.onDispose();
+		engine.run();
+	}
+	
+	/**
+	 * Runs the game loop on the calling thread until the given amount of updates have been performed. When the loop has not been initialized yet, the {@code onInit()} method of the listener is invoked first. The {@code onDispose()} method is never invoked by this method.
+	 * <br><br>
+	 * In combination with a {@code VirtualClock} the loop never waits for real time to pass, which makes it run as fast as the CPU allows. This method should not be used while the loop thread is running.
+	 * @param count - the amount of updates to perform
+	 * @since 1.1.0
+	 * @see com.nullpointerworks.game.time.VirtualClock
+	 */
+	public void advance(int count)
+	{
+		engine.advance(count);
 	}
 }
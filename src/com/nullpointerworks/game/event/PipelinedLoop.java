@@ -0,0 +1,277 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.event;
+
+import com.nullpointerworks.game.Period;
+import com.nullpointerworks.game.PipelineListener;
+import com.nullpointerworks.game.stats.LoopStats;
+import com.nullpointerworks.game.time.GameClock;
+import com.nullpointerworks.game.time.WaitStrategy;
+
+/**
+ * The Pipelined game loop runs the simulation and the rendering on two separate threads. It has the same fixed time stepping as the {@code FixedLoop}, but rendering no longer eats into the time budget of the simulation. While the render thread draws tick N, the simulation thread is already computing tick N+1.
+ * <br><br>
+ * The threads don't share any live state. After each batch of updates the simulation publishes a snapshot of its state through a {@code TripleBuffer}, and the render thread draws the most recent snapshot. The between-update frame interpolation is calculated against the time stamp of that snapshot. The handoff is lock-free, so neither thread ever waits for the other. On machines where both updating and rendering are heavy, this can nearly double the throughput.
+ * @param <S> the type of the state snapshot
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ * @see PipelineListener
+ * @see TripleBuffer
+ */
+public class PipelinedLoop<S> implements Runnable
+{
+	private Thread thread;
+	private Thread renderThread;
+	private double game_hertz;
+	private int game_fps;
+	private final Period update_period = new Period();
+	private final Period frame_period = new Period();
+	private int max_updates = Integer.MAX_VALUE;
+	private volatile boolean running = true;
+	private GameClock clock = GameClock.system();
+	private WaitStrategy wait = WaitStrategy.hybrid();
+	private WaitStrategy renderWait = WaitStrategy.hybrid();
+	private LoopStats stats = new LoopStats();
+	private LoopStats renderStats = new LoopStats();
+	private TripleBuffer<S> buffer;
+	private PipelineListener<S> e;
+	
+	/**
+	 * Creates a new {@code PipelinedLoop} object that drives the provided {@code PipelineListener} event methods.
+	 * @param listener - the pipeline event listener to listen
+	 * @param fps - the desired frames per second
+	 * @param hertz - the desired amount of updates per second
+	 * @since 1.1.0
+	 */
+	public PipelinedLoop(PipelineListener<S> listener, int fps, double hertz)
+	{
+		e = listener;
+		setTargetFPS(fps);
+		setTargetHz(hertz);
+	}
+	
+	/**
+	 * Set the desired frames per second.
+	 * @param fps - the desired frames per second
+	 * @throws IllegalArgumentException when the rate is zero or less
+	 * @since 1.1.0
+	 */
+	public void setTargetFPS(int fps)
+	{
+		frame_period.set(fps);
+		game_fps = fps;
+	}
+	
+	/**
+	 * Set the desired amount of updates per second.
+	 * @param hertz - the desired amount of updates per second
+	 * @throws IllegalArgumentException when the rate is zero or less
+	 * @since 1.1.0
+	 */
+	public void setTargetHz(double hertz)
+	{
+		update_period.set(hertz);
+		game_hertz = hertz;
+	}
+	
+	/**
+	 * Set the maximum amount of updates performed before a state is published. When the simulation is still behind after this amount of updates, the remaining time is dropped. A value of zero or less removes the limit, which is the default.
+	 * @param max - the maximum amount of updates per published state
+	 * @since 1.1.0
+	 */
+	public void setMaxUpdates(int max)
+	{
+		max_updates = (max<1)? Integer.MAX_VALUE: max;
+	}
+	
+	/**
+	 * Set the strategies used to idle the simulation and render threads. Each thread needs its own {@code WaitStrategy} object. By default, both threads use a {@code HybridWait}.
+	 * @param simulation - the {@code WaitStrategy} to idle the simulation thread with
+	 * @param render - the {@code WaitStrategy} to idle the render thread with
+	 * @since 1.1.0
+	 */
+	public void setWaitStrategy(WaitStrategy simulation, WaitStrategy render)
+	{
+		wait = simulation;
+		renderWait = render;
+	}
+	
+	/**
+	 * Set the clock this loop reads its time from. By default, the system clock is used. The clock should not be changed while the loop is running.
+	 * @param clock - the {@code GameClock} to drive this loop with
+	 * @since 1.1.0
+	 */
+	public void setClock(GameClock clock)
+	{
+		this.clock = clock;
+	}
+	
+	/**
+	 * Returns the timing statistics of the simulation thread. Only the update time, ticks and catch-up figures are filled in.
+	 * @return the {@code LoopStats} of the simulation thread
+	 * @since 1.1.0
+	 */
+	public LoopStats getStats()
+	{
+		return stats;
+	}
+	
+	/**
+	 * Returns the timing statistics of the render thread. Only the render time, frame time and overshoot figures are filled in.
+	 * @return the {@code LoopStats} of the render thread
+	 * @since 1.1.0
+	 */
+	public LoopStats getRenderStats()
+	{
+		return renderStats;
+	}
+	
+	/**
+	 * Start the game loop in two new threads. Does nothing while the threads of a previous start are still running, even when they have been asked to stop.
+	 * @since 1.1.0
+	 */
+	public void start()
+	{
+		if (thread != null && thread.isAlive()) return;
+		running = true;
+		thread = new Thread(this);
+		thread.start();
+	}
+	
+	/**
+	 * Stops both game loop threads.
+	 * @since 1.1.0
+	 */
+	public void stop()
+	{
+		running = false;
+	}
+	
+	@Override
+	public void run()
+	{
+		long nanotime_curr;
+		long last_update;
+		long next_update;
+		long timer;
+		int updates;
+		
+		buffer = new TripleBuffer<S>(e.createState(), e.createState(), e.createState());
+		e.onInit();
+		last_update = clock.nanoTime();
+		next_update = update_period.next(last_update);
+		
+		/*
+		 * make sure the renderer has something to draw before it starts
+		 */
+		e.onPublish(buffer.getWriteBuffer());
+		buffer.publish(last_update);
+		renderThread = new Thread(new Renderer());
+		renderThread.start();
+		
+		while (running)
+		{
+			nanotime_curr = clock.nanoTime();
+			updates = 0;
+			
+			while (nanotime_curr - next_update >= 0 && updates < max_updates)
+			{
+				timer = System.nanoTime();
+				e.onUpdate(update_period.getSeconds());
+				stats.recordUpdate(System.nanoTime() - timer);
+				last_update = next_update;
+				next_update = update_period.next(next_update);
+				updates++;
+			}
+			
+			/*
+			 * still behind after the maximum amount of updates. drop the missed time by resyncing to now.
+			 */
+			if (updates >= max_updates && nanotime_curr - next_update >= 0)
+			{
+				long synced = update_period.skip(next_update, update_period.count(next_update, nanotime_curr));
+				long dropped = synced - next_update;
+				last_update += dropped;
+				next_update = synced;
+				stats.recordCatchUpLimit(dropped);
+			}
+			
+			/*
+			 * hand the new state to the renderer, and continue with the next tick
+			 */
+			if (updates > 0)
+			{
+				e.onPublish(buffer.getWriteBuffer());
+				buffer.publish(last_update);
+				stats.recordFrame((long)(update_period.getNanos() * updates), updates);
+			}
+			
+			if (next_update - clock.nanoTime() > 0)
+			{
+				stats.recordOvershoot(clock.waitUntil(next_update, wait) - next_update);
+			}
+		}
+		
+		try
+		{
+			renderThread.join();
+		}
+		catch (InterruptedException ex)
+		{
+			ex.printStackTrace();
+		}
+		e.onDispose();
+	}
+	
+	/*
+	 * draws the most recently published state at the desired frame rate
+	 */
+	private class Renderer implements Runnable
+	{
+		@Override
+		public void run()
+		{
+			long nanotime_curr;
+			long frame_nanotime_prev = clock.nanoTime();
+			long next_frame = frame_nanotime_prev;
+			long timer;
+			double interpolation;
+			
+			while (running)
+			{
+				buffer.acquire();
+				nanotime_curr = clock.nanoTime();
+				
+				/*
+				 * calculate in-between frame interpolation against the published state. capped at 1(100%).
+				 */
+				interpolation = (nanotime_curr - buffer.getReadTime()) * update_period.getInverseNanos();
+				interpolation = (interpolation>1d)? 1d: interpolation;
+				
+				timer = System.nanoTime();
+				e.onRender(buffer.getReadBuffer(), interpolation);
+				renderStats.recordRender(System.nanoTime() - timer);
+				renderStats.recordFrame(nanotime_curr - frame_nanotime_prev, 0);
+				frame_nanotime_prev = nanotime_curr;
+				
+				/*
+				 * frames are due on absolute deadlines, so an overshoot doesn't delay the frames after it.
+				 * when a whole frame late, skip the missed deadlines instead of rushing through them.
+				 */
+				next_frame = frame_period.next(next_frame);
+				nanotime_curr = clock.nanoTime();
+				if (next_frame - nanotime_curr > 0)
+				{
+					renderStats.recordOvershoot(clock.waitUntil(next_frame, renderWait) - next_frame);
+				}
+				else
+				{
+					next_frame = frame_period.skip(next_frame, frame_period.count(next_frame, nanotime_curr));
+				}
+			}
+		}
+	}
+}
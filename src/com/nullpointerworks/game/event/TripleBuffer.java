@@ -0,0 +1,95 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.event;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A lock-free triple buffer that hands state objects from one writing thread to one reading thread. The writer always owns one buffer and the reader always owns another. The third buffer is exchanged through a single atomic swap, so neither thread ever waits on the other. The reader always sees the most recently published state, and states that were never read are simply overwritten.
+ * @param <S> the type of the buffered state objects
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+public class TripleBuffer<S>
+{
+	private static final int INDEX = 3;
+	private static final int FRESH = 4;
+	
+	private final Object[] states;
+	private final long[] times;
+	private final AtomicInteger middle;
+	private int back 	= 0;
+	private int front 	= 2;
+	
+	/**
+	 * Creates a new {@code TripleBuffer} with the given state objects. The objects must be distinct.
+	 * @param a - the first state object
+	 * @param b - the second state object
+	 * @param c - the third state object
+	 * @since 1.1.0
+	 */
+	public TripleBuffer(S a, S b, S c)
+	{
+		states = new Object[] {a, b, c};
+		times = new long[3];
+		middle = new AtomicInteger(1);
+	}
+	
+	/**
+	 * Returns the state object currently owned by the writer.
+	 * @return the state object to write into
+	 * @since 1.1.0
+	 */
+	@SuppressWarnings("unchecked")
+	public S getWriteBuffer()
+	{
+		return (S)states[back];
+	}
+	
+	/**
+	 * Publishes the writer's state object to the reader, and hands the writer a different state object to write into next.
+	 * @param time - the time stamp in nanoseconds the published state represents
+	 * @since 1.1.0
+	 */
+	public void publish(long time)
+	{
+		times[back] = time;
+		back = middle.getAndSet(back | FRESH) & INDEX;
+	}
+	
+	/**
+	 * Moves the most recently published state object to the reader, if there is one that hasn't been read yet.
+	 * @return {@code true} if a new state object was acquired, {@code false} otherwise
+	 * @since 1.1.0
+	 */
+	public boolean acquire()
+	{
+		if ((middle.get() & FRESH) == 0) return false;
+		front = middle.getAndSet(front) & INDEX;
+		return true;
+	}
+	
+	/**
+	 * Returns the state object currently owned by the reader.
+	 * @return the state object to read from
+	 * @since 1.1.0
+	 */
+	@SuppressWarnings("unchecked")
+	public S getReadBuffer()
+	{
+		return (S)states[front];
+	}
+	
+	/**
+	 * Returns the time stamp in nanoseconds of the state object currently owned by the reader.
+	 * @return the time stamp of the readable state
+	 * @since 1.1.0
+	 */
+	public long getReadTime()
+	{
+		return times[front];
+	}
+}
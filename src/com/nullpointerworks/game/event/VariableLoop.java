@@ -5,7 +5,14 @@
  */
 package com.nullpointerworks.game.event;
 
+import com.nullpointerworks.game.LoadGovernor;
+import com.nullpointerworks.game.LoopEngine;
 import com.nullpointerworks.game.LoopListener;
+import com.nullpointerworks.game.LoopMonitor;
+import com.nullpointerworks.game.Timestep;
+import com.nullpointerworks.game.stats.LoopStats;
+import com.nullpointerworks.game.time.GameClock;
+import com.nullpointerworks.game.time.WaitStrategy;
 
 /** 
  * The Variable game loop provide high time stepping granularity. It's great for lightweight games that require accurate time stepping at high frame rates. 
@@ -15,22 +22,14 @@ import com.nullpointerworks.game.LoopListener;
  * 
  * <br><br>
  * The {@code onRender(double)} method does not have to be implemented for this loop to work. The update and render event call only occur once each cycle, so rendering can also be done at the end of the update method. Though not required, it's safe to override it.
+ * <br><br>
+ * Since 1.1.0, this loop is a facade over a {@code LoopEngine} with a {@code VARIABLE} time step, which schedules frames against drift-free absolute deadlines.
  * @author Michiel Drost - Nullpointer Works
  * @since 1.0.0
  */
 public class VariableLoop implements Runnable 
 {
-	private final long NANO 		= 1_000_000_000;// 10^9
-	private final long MICRO 		= 1_000_000;	// 10^6
-	private final double inv_NANO 	= 1.0 / NANO;	// 10^-9
-	private final double inv_MICRO 	= 1.0 / MICRO;	// 10^-6
-	
-	private Thread thread;
-	private boolean running 	= true;
-	private int target_update 	= 30; 
-	private long ideal_time 	= NANO / target_update;
-	private long nanotime_prev;
-	private LoopListener e;
+	private final LoopEngine engine;
 	
 	/**
 	 * Creates a new {@code VariableLoop} object that drives the provided {@code LoopListener} event methods.
@@ -40,7 +39,8 @@ public class VariableLoop implements Runnable
 	 */
 	public VariableLoop(LoopListener looplistener, int fps)
 	{
-		e = looplistener;
+		engine = new LoopEngine(looplistener, Timestep.VARIABLE);
+		engine.setWaitStrategy(WaitStrategy.sleep());
 		setTargetFPS(fps);
 	}
 
@@ -51,18 +51,141 @@ public class VariableLoop implements Runnable
 	 */
 	public void setTargetFPS(int fps) 
 	{
-		target_update = fps;
-		ideal_time = NANO / target_update;
+		engine.setFrameRate(fps);
 	}
 
+	/**
+	 * Set the strategy used to idle the loop thread between frames. By default, a {@code SleepWait} is used.
+	 * @param strategy - the {@code WaitStrategy} to idle the loop thread with
+	 * @since 1.1.0
+	 * @see WaitStrategy
+	 */
+	public void setWaitStrategy(WaitStrategy strategy)
+	{
+		engine.setWaitStrategy(strategy);
+	}
+	
+	/**
+	 * Returns the strategy used to idle the loop thread between frames.
+	 * @return the {@code WaitStrategy} of this loop
+	 * @since 1.1.0
+	 */
+	public WaitStrategy getWaitStrategy()
+	{
+		return engine.getWaitStrategy();
+	}
+	
+	/**
+	 * Set the clock this loop reads its time from. By default, the system clock is used. The clock should not be changed while the loop is running.
+	 * @param clock - the {@code GameClock} to drive this loop with
+	 * @since 1.1.0
+	 * @see GameClock
+	 */
+	public void setClock(GameClock clock)
+	{
+		engine.setClock(clock);
+	}
+	
+	/**
+	 * Returns the clock this loop reads its time from.
+	 * @return the {@code GameClock} of this loop
+	 * @since 1.1.0
+	 */
+	public GameClock getClock()
+	{
+		return engine.getClock();
+	}
+	
+	/**
+	 * Set {@code false} to suppress the {@code onRender(double)} invocations of this loop. Updates will continue as normal. Rendering is enabled by default.
+	 * @param state - set {@code true} to render, {@code false} otherwise
+	 * @since 1.1.0
+	 */
+	public void setRenderEnabled(boolean state)
+	{
+		engine.setRenderEnabled(state);
+	}
+	
+	/**
+	 * Set the maximum time step in seconds passed to a single update. Longer time steps are split into equal sub-steps of at most this length, up to the maximum amount of sub-steps. Time beyond that is discarded, reported to the {@code LoopMonitor} and counted in the {@code LoopStats}. This keeps the cost of an update bounded after the loop has stalled. A value of zero or less removes the limit, which is the default.
+	 * @param seconds - the maximum time step in seconds
+	 * @since 1.1.0
+	 */
+	public void setMaxDelta(double seconds)
+	{
+		engine.setMaxDelta(seconds);
+	}
+	
+	/**
+	 * Set the maximum amount of updates a time step longer than the maximum time step is split into. By default, a long time step is clamped into a single update.
+	 * @param steps - the maximum amount of sub-steps of one or more
+	 * @since 1.1.0
+	 */
+	public void setMaxSubSteps(int steps)
+	{
+		engine.setMaxSubSteps(steps);
+	}
+	
+	/**
+	 * Set the gap between two frames in seconds from which on the gap is reported as a hiccup to the {@code LoopMonitor}, and counted in the {@code LoopStats}. Hiccups are typically caused by garbage collection pauses, debugger stops or a suspended process. A value of zero or less disables hiccup detection, which is the default.
+	 * @param seconds - the minimum gap in seconds to report
+	 * @since 1.1.0
+	 */
+	public void setHiccupThreshold(double seconds)
+	{
+		engine.setHiccupThreshold(seconds);
+	}
+	
+	/**
+	 * Set the monitor to notify about the health of this loop, or {@code null} to remove it.
+	 * @param monitor - the {@code LoopMonitor} to notify
+	 * @since 1.1.0
+	 * @see LoopMonitor
+	 */
+	public void setMonitor(LoopMonitor monitor)
+	{
+		engine.setMonitor(monitor);
+	}
+	
+	/**
+	 * Set the governor that adapts this loop to its load, or {@code null} to remove it. Since this loop updates once every cycle, the update rate of the governor is the amount of cycles per second, which never rises above the target frame rate. Its steps are reported to the monitor with {@code onFrameRate(double)}. The target frame rate is restored when the governor is removed.
+	 * @param governor - the {@code LoadGovernor} to adapt this loop with
+	 * @since 1.1.0
+	 * @see LoadGovernor
+	 */
+	public void setLoadGovernor(LoadGovernor governor)
+	{
+		engine.setLoadGovernor(governor);
+	}
+	
+	/**
+	 * Returns the amount of updates this loop has performed.
+	 * @return the amount of updates this loop has performed
+	 * @since 1.1.0
+	 */
+	public long getTicks()
+	{
+		return engine.getTicks();
+	}
+	
+	/**
+	 * Returns the timing statistics of this loop. The statistics are filled in by the loop thread and can be read from any other thread.
+	 * @return the {@code LoopStats} of this loop
+	 * @since 1.1.0
+	 * @see LoopStats
+	 */
+	public LoopStats getStats()
+	{
+		return engine.getStats();
+	}
+	
 	/**
 	 * Start the game loop in a new thread.
 	 * @since 1.0.0
 	 */
 	public void start()
 	{
-		thread = new Thread(this);
-		thread.start();
+		engine.start();
 	}
 
 	/**
@@ -71,46 +194,25 @@ public class VariableLoop implements Runnable
 	 */
 	public void stop()
 	{
-		running = false;
+		engine.stop();
 	}
 	
 	@Override
 	public void run()
 	{
-		long nanotime_curr;
-		long nanotime_delta;
-		long sleep;
-		double timing;
-		
-		e.onInit();
-		
-		ideal_time = NANO / target_update;
-		nanotime_prev = System.nanoTime();
-		
-		while (running)
-		{
-			nanotime_curr = System.nanoTime();
-			nanotime_delta = nanotime_curr - nanotime_prev;
-			nanotime_prev = nanotime_curr;
-			timing = nanotime_delta * inv_NANO;
-			e.onUpdate(timing);
-			e.onRender(1.0);
-			
-			/*
-			 * get nanotime till next cycle
-			 * convert to milliseconds, since thats what sleep() wants
-			 */
-			sleep = (long)( ((nanotime_curr - System.nanoTime() + ideal_time) * inv_MICRO));
-			try
-			{
-				Thread.sleep( (sleep<0)?0:sleep );
-			} 
-			catch (InterruptedException e) 
-			{
-				e.printStackTrace();
-			}
-		}
-		
-		e.onDispose();
+		engine.run();
+	}
+	
+	/**
+	 * Runs the game loop on the calling thread until the given amount of updates have been performed. When the loop has not been initialized yet, the {@code onInit()} method of the listener is invoked first. The {@code onDispose()} method is never invoked by this method.
+	 * <br><br>
+	 * In combination with a {@code VirtualClock} the loop never waits for real time to pass, which makes it run as fast as the CPU allows. This method should not be used while the loop thread is running.
+	 * @param count - the amount of updates to perform
+	 * @since 1.1.0
+	 * @see com.nullpointerworks.game.time.VirtualClock
+	 */
+	public void advance(int count)
+	{
+		engine.advance(count);
 	}
 }
@@ -0,0 +1,300 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.replay;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Records the input of a game session per tick into an append-only, memory-mapped file, to be played back by a {@code ReplayDriver}. A record consists of the tick it belongs to, a type between 0 and {@code MAX_TYPE} and a payload of up to {@code MAX_PAYLOAD} bytes. The meaning of the type and payload is up to the game.
+ * <br><br>
+ * The journal is attached to a fixed time stepping loop with {@code setJournal(InputJournal)}. The loop moves the journal to the next tick after every update, and records every change of its time step. Ticks count from the moment the journal was attached, so a session recorded from the middle plays back from its first tick. A record belongs to the update that follows it, so input should be recorded where the game applies it, which is typically when it polls its input at the start of an update.
+ * <br><br>
+ * Records are written straight into a mapped region of the file, which is mapped in chunks as the journal grows. Recording does not allocate, and costs about as much as writing into an array. The header of the file is updated after every record, so a journal is readable up to its last record even when the process did not close it. The file may be larger than its contents, since chunks are mapped ahead of the records. A journal is not thread-safe and should only be used by the loop thread.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ * @see ReplayDriver
+ * @see JournalReader
+ */
+public class InputJournal implements Closeable
+{
+	/**
+	 * The highest record type available to games.
+	 * @since 1.1.0
+	 */
+	public static final int MAX_TYPE = Short.MAX_VALUE;
+	
+	/**
+	 * The maximum length of a record payload in bytes.
+	 * @since 1.1.0
+	 */
+	public static final int MAX_PAYLOAD = 0xFFFF;
+	
+	static final int MAGIC 			= 0x4E504A4C; // NPJL
+	static final int VERSION 		= 1;
+	static final int HEADER 		= 32;
+	static final int RECORD 		= 12;
+	static final int TICKS_OFFSET 	= 8;
+	static final int END_OFFSET 	= 16;
+	static final int TIME_STEP 		= -1;
+	
+	private final FileChannel channel;
+	private final MappedByteBuffer header;
+	private final int chunk;
+	private MappedByteBuffer data;
+	private long base;
+	private long tick = 0;
+	private long records = 0;
+	private double time = 0d;
+	
+	/**
+	 * Creates a new journal in the given file, replacing any existing file. The file is mapped in chunks of 1 MiB.
+	 * @param file - the file to record into
+	 * @throws IOException when the file could not be created or mapped
+	 * @since 1.1.0
+	 */
+	public InputJournal(Path file) throws IOException
+	{
+		this(file, 1 << 20);
+	}
+	
+	/**
+	 * Creates a new journal in the given file, replacing any existing file.
+	 * @param file - the file to record into
+	 * @param chunk - the size in bytes of the regions the file is mapped in, of at least 64 KiB
+	 * @throws IOException when the file could not be created or mapped
+	 * @since 1.1.0
+	 */
+	public InputJournal(Path file, int chunk) throws IOException
+	{
+		this.chunk = (chunk < RECORD + MAX_PAYLOAD)? RECORD + MAX_PAYLOAD: chunk;
+		channel = FileChannel.open(file,
+								StandardOpenOption.CREATE,
+								StandardOpenOption.TRUNCATE_EXISTING,
+								StandardOpenOption.READ,
+								StandardOpenOption.WRITE);
+		header = channel.map(MapMode.READ_WRITE, 0, HEADER);
+		header.order(ByteOrder.LITTLE_ENDIAN);
+		header.putInt(0, MAGIC);
+		header.putInt(4, VERSION);
+		header.putLong(TICKS_OFFSET, 0);
+		header.putLong(END_OFFSET, HEADER);
+		map(HEADER);
+	}
+	
+	/**
+	 * Moves the journal on to the given tick. Records made after this belong to the update of that tick. Invoked by the loop after every update.
+	 * @param tick - the amount of updates performed since the journal was attached
+	 * @since 1.1.0
+	 */
+	public void tick(long tick)
+	{
+		this.tick = tick;
+		header.putLong(TICKS_OFFSET, tick);
+	}
+	
+	/**
+	 * Records the time step passed to the updates from the current tick on. Invoked by the loop when its update rate is set or changed. Nothing is recorded when the time step did not change.
+	 * @param time - the time step in seconds
+	 * @since 1.1.0
+	 */
+	public void timeStep(double time)
+	{
+		if (time == this.time) return;
+		this.time = time;
+		begin(TIME_STEP, 8);
+		data.putDouble(time);
+		end();
+	}
+	
+	/**
+	 * Records an event without a payload.
+	 * @param type - the type of the record
+	 * @since 1.1.0
+	 */
+	public void record(int type)
+	{
+		begin(check(type), 0);
+		end();
+	}
+	
+	/**
+	 * Records an event with a single integer, like a key code.
+	 * @param type - the type of the record
+	 * @param value - the payload
+	 * @since 1.1.0
+	 */
+	public void record(int type, int value)
+	{
+		begin(check(type), 4);
+		data.putInt(value);
+		end();
+	}
+	
+	/**
+	 * Records an event with two integers, like a pointer position.
+	 * @param type - the type of the record
+	 * @param a - the first integer of the payload
+	 * @param b - the second integer of the payload, at offset 4
+	 * @since 1.1.0
+	 */
+	public void record(int type, int a, int b)
+	{
+		begin(check(type), 8);
+		data.putInt(a);
+		data.putInt(b);
+		end();
+	}
+	
+	/**
+	 * Records an event with a single long, like a bit set of buttons or a random seed.
+	 * @param type - the type of the record
+	 * @param value - the payload
+	 * @since 1.1.0
+	 */
+	public void record(int type, long value)
+	{
+		begin(check(type), 8);
+		data.putLong(value);
+		end();
+	}
+	
+	/**
+	 * Records an event with a single double, like an analog axis.
+	 * @param type - the type of the record
+	 * @param value - the payload
+	 * @since 1.1.0
+	 */
+	public void record(int type, double value)
+	{
+		begin(check(type), 8);
+		data.putDouble(value);
+		end();
+	}
+	
+	/**
+	 * Records an event with a payload of bytes.
+	 * @param type - the type of the record
+	 * @param bytes - the array holding the payload
+	 * @param offset - the index of the first byte of the payload
+	 * @param length - the amount of bytes in the payload, up to {@code MAX_PAYLOAD}
+	 * @since 1.1.0
+	 */
+	public void record(int type, byte[] bytes, int offset, int length)
+	{
+		if (length < 0 || length > MAX_PAYLOAD)
+		{
+			throw new IllegalArgumentException("Payload length out of range: "+length);
+		}
+		begin(check(type), length);
+		data.put(bytes, offset, length);
+		end();
+	}
+	
+	/**
+	 * Returns the tick new records belong to.
+	 * @return the current tick
+	 * @since 1.1.0
+	 */
+	public long getTick()
+	{
+		return tick;
+	}
+	
+	/**
+	 * Returns the amount of records in this journal, including the time step records of the loop.
+	 * @return the amount of records
+	 * @since 1.1.0
+	 */
+	public long getRecords()
+	{
+		return records;
+	}
+	
+	/**
+	 * Returns the size of the contents of the journal in bytes, including the header.
+	 * @return the size of the journal in bytes
+	 * @since 1.1.0
+	 */
+	public long getSize()
+	{
+		return base + data.position();
+	}
+	
+	/**
+	 * Writes all records to the storage device. This is not required to read the journal from the same machine, and may take a while.
+	 * @since 1.1.0
+	 */
+	public void flush()
+	{
+		data.force();
+		header.force();
+	}
+	
+	/**
+	 * Flushes and closes the journal. The mapped regions are released once they are garbage collected.
+	 * @throws IOException when the file could not be closed
+	 * @since 1.1.0
+	 */
+	@Override
+	public void close() throws IOException
+	{
+		flush();
+		channel.close();
+	}
+	
+	// ====================================
+	
+	private int check(int type)
+	{
+		if (type < 0 || type > MAX_TYPE)
+		{
+			throw new IllegalArgumentException("Record type out of range: "+type);
+		}
+		return type;
+	}
+	
+	/*
+	 * writes the record header, and maps the next chunk first if the record doesn't fit
+	 */
+	private void begin(int type, int length)
+	{
+		if (data.remaining() < RECORD + length)
+		{
+			try
+			{
+				map(base + data.position());
+			}
+			catch (IOException ex)
+			{
+				throw new UncheckedIOException(ex);
+			}
+		}
+		data.putLong(tick);
+		data.putShort((short)type);
+		data.putShort((short)length);
+	}
+	
+	private void end()
+	{
+		records++;
+		header.putLong(END_OFFSET, base + data.position());
+	}
+	
+	private void map(long position) throws IOException
+	{
+		base = position;
+		data = channel.map(MapMode.READ_WRITE, base, chunk);
+		data.order(ByteOrder.LITTLE_ENDIAN);
+	}
+}
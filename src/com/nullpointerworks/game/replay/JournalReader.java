@@ -0,0 +1,209 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.replay;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads the records of an {@code InputJournal} file one after another. The reader acts as a cursor: {@code next()} moves it to the next record, after which the tick, type and payload of that record can be read. Reading does not allocate.
+ * <br><br>
+ * The journal is mapped into memory as a whole, up to the last record written to its header. A journal that is still being recorded can be read, but records made after the reader was created are not visible to it.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ * @see InputJournal
+ */
+public class JournalReader
+{
+	private final MappedByteBuffer data;
+	private final long ticks;
+	private final int end;
+	private int record;
+	private int payload;
+	private long tick;
+	private int type;
+	private int length;
+	
+	/**
+	 * Opens the given journal file for reading.
+	 * @param file - the journal file to read
+	 * @throws IOException when the file could not be read, or is not a journal
+	 * @since 1.1.0
+	 */
+	public JournalReader(Path file) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+		{
+			if (channel.size() < InputJournal.HEADER)
+			{
+				throw new IOException("Not an input journal: "+file);
+			}
+			MappedByteBuffer header = channel.map(MapMode.READ_ONLY, 0, InputJournal.HEADER);
+			header.order(ByteOrder.LITTLE_ENDIAN);
+			if (header.getInt(0) != InputJournal.MAGIC)
+			{
+				throw new IOException("Not an input journal: "+file);
+			}
+			if (header.getInt(4) != InputJournal.VERSION)
+			{
+				throw new IOException("Unsupported input journal version: "+header.getInt(4));
+			}
+			long size = header.getLong(InputJournal.END_OFFSET);
+			if (size > Integer.MAX_VALUE)
+			{
+				throw new IOException("Input journal too large to read: "+size+" bytes");
+			}
+			ticks = header.getLong(InputJournal.TICKS_OFFSET);
+			end = (int)size;
+			data = channel.map(MapMode.READ_ONLY, 0, end);
+			data.order(ByteOrder.LITTLE_ENDIAN);
+		}
+		reset();
+	}
+	
+	/**
+	 * Moves the reader back to before the first record.
+	 * @since 1.1.0
+	 */
+	public void reset()
+	{
+		record = InputJournal.HEADER;
+		payload = InputJournal.HEADER;
+		length = 0;
+		tick = -1;
+		type = -1;
+	}
+	
+	/**
+	 * Moves the reader to the next record.
+	 * @return {@code true} if there is a next record, {@code false} if all records have been read
+	 * @since 1.1.0
+	 */
+	public boolean next()
+	{
+		record = payload + length;
+		if (record + InputJournal.RECORD > end) return false;
+		tick 	= data.getLong(record);
+		type 	= data.getShort(record + 8);
+		length 	= data.getShort(record + 10) & 0xFFFF;
+		payload = record + InputJournal.RECORD;
+		return true;
+	}
+	
+	/**
+	 * Returns the tick of the record after the current one, without moving the reader.
+	 * @return the tick of the next record, or {@code -1} if there are no more records
+	 * @since 1.1.0
+	 */
+	public long peekTick()
+	{
+		int next = payload + length;
+		if (next + InputJournal.RECORD > end) return -1;
+		return data.getLong(next);
+	}
+	
+	/**
+	 * Returns the amount of updates performed while the journal was recorded.
+	 * @return the amount of recorded ticks
+	 * @since 1.1.0
+	 */
+	public long getTicks()
+	{
+		return ticks;
+	}
+	
+	/**
+	 * Returns the tick the current record belongs to.
+	 * @return the tick of the current record
+	 * @since 1.1.0
+	 */
+	public long getTick()
+	{
+		return tick;
+	}
+	
+	/**
+	 * Returns the type of the current record. Types below zero are reserved for records of the loop.
+	 * @return the type of the current record
+	 * @since 1.1.0
+	 */
+	public int getType()
+	{
+		return type;
+	}
+	
+	/**
+	 * Returns the length of the payload of the current record.
+	 * @return the payload length in bytes
+	 * @since 1.1.0
+	 */
+	public int getLength()
+	{
+		return length;
+	}
+	
+	/**
+	 * Returns the integer at the start of the payload.
+	 * @return an integer from the payload
+	 * @since 1.1.0
+	 */
+	public int getInt()
+	{
+		return getInt(0);
+	}
+	
+	/**
+	 * Returns the integer at the given offset in the payload.
+	 * @param offset - the offset in bytes from the start of the payload
+	 * @return an integer from the payload
+	 * @since 1.1.0
+	 */
+	public int getInt(int offset)
+	{
+		return data.getInt(payload + offset);
+	}
+	
+	/**
+	 * Returns the long at the start of the payload.
+	 * @return a long from the payload
+	 * @since 1.1.0
+	 */
+	public long getLong()
+	{
+		return data.getLong(payload);
+	}
+	
+	/**
+	 * Returns the double at the start of the payload.
+	 * @return a double from the payload
+	 * @since 1.1.0
+	 */
+	public double getDouble()
+	{
+		return data.getDouble(payload);
+	}
+	
+	/**
+	 * Copies the payload into the given array, as far as it fits.
+	 * @param into - the array to copy the payload into
+	 * @return the amount of bytes copied
+	 * @since 1.1.0
+	 */
+	public int getBytes(byte[] into)
+	{
+		int l = (length < into.length)? length: into.length;
+		for (int i=0; i<l; i++)
+		{
+			into[i] = data.get(payload + i);
+		}
+		return l;
+	}
+}
@@ -0,0 +1,120 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.replay;
+
+import com.nullpointerworks.game.LoopListener;
+
+/**
+ * Plays back a recorded {@code InputJournal} through a {@code LoopListener} as fast as the CPU allows. For every recorded tick, the records of that tick are passed to the {@code ReplayListener} first, after which the {@code onUpdate(double)} method is invoked with the time step the loop used for that tick. Given the same starting state and records, a deterministic game arrives at the same state it was in during the recording.
+ * <br><br>
+ * Since a {@code Fixed} loop is its own {@code LoopListener}, the loop that made the recording can be played back by the driver directly, without being started. Rendering is disabled by default.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ * @see InputJournal
+ */
+public class ReplayDriver implements Runnable
+{
+	private final JournalReader reader;
+	private final LoopListener listener;
+	private final ReplayListener replay;
+	private boolean rendering = false;
+	private boolean prepared = false;
+	private long ticks = 0;
+	private double time = 0d;
+	
+	/**
+	 * Creates a driver that plays back the given journal.
+	 * @param reader - the journal to play back
+	 * @param listener - the loop listener to update
+	 * @param replay - the listener to pass the records to, or {@code null} to only replay the time steps
+	 * @since 1.1.0
+	 */
+	public ReplayDriver(JournalReader reader, LoopListener listener, ReplayListener replay)
+	{
+		this.reader = reader;
+		this.listener = listener;
+		this.replay = replay;
+	}
+	
+	/**
+	 * Set {@code true} to invoke {@code onRender(double)} after every update, with an interpolation of 1. Rendering is disabled by default.
+	 * @param state - set {@code true} to render, {@code false} otherwise
+	 * @since 1.1.0
+	 */
+	public void setRenderEnabled(boolean state)
+	{
+		rendering = state;
+	}
+	
+	/**
+	 * Returns the amount of ticks played back.
+	 * @return the amount of ticks played back
+	 * @since 1.1.0
+	 */
+	public long getTicks()
+	{
+		return ticks;
+	}
+	
+	/**
+	 * Returns {@code true} when all recorded ticks have been played back.
+	 * @return {@code true} when the playback has finished
+	 * @since 1.1.0
+	 */
+	public boolean isFinished()
+	{
+		return ticks >= reader.getTicks();
+	}
+	
+	/**
+	 * Plays back the whole journal on the calling thread. The {@code onInit()} method is invoked first, if the driver has not been advanced yet, and {@code onDispose()} when the playback has finished.
+	 * @since 1.1.0
+	 */
+	@Override
+	public void run()
+	{
+		while (!isFinished())
+		{
+			advance(Integer.MAX_VALUE);
+		}
+		listener.onDispose();
+	}
+	
+	/**
+	 * Plays back the given amount of ticks on the calling thread, or fewer when the end of the journal is reached. When the driver has not been advanced yet, the {@code onInit()} method is invoked first. The {@code onDispose()} method is never invoked by this method.
+	 * @param count - the amount of ticks to play back
+	 * @return the amount of ticks played back
+	 * @since 1.1.0
+	 */
+	public int advance(int count)
+	{
+		if (!prepared)
+		{
+			prepared = true;
+			listener.onInit();
+		}
+		
+		int done = 0;
+		while (done < count && !isFinished())
+		{
+			/*
+			 * pass on the records of this tick, and pick up changes of the time step.
+			 */
+			while (reader.peekTick() >= 0 && reader.peekTick() <= ticks)
+			{
+				reader.next();
+				if (reader.getType() == InputJournal.TIME_STEP) time = reader.getDouble();
+				else if (replay != null) replay.onRecord(reader);
+			}
+			
+			listener.onUpdate(time);
+			if (rendering) listener.onRender(1d);
+			ticks++;
+			done++;
+		}
+		return done;
+	}
+}
@@ -0,0 +1,22 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.replay;
+
+/**
+ * Receives the records of a journal while it's played back by a {@code ReplayDriver}.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ * @see ReplayDriver
+ */
+public interface ReplayListener
+{
+	/**
+	 * Invoked for every record of a tick, in the order they were recorded, before the update of that tick. The record can only be read during this invocation.
+	 * @param record - the reader positioned at the record
+	 * @since 1.1.0
+	 */
+	public void onRecord(JournalReader record);
+}
@@ -0,0 +1,202 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.stats;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size log-linear histogram for non-negative values, such as durations in nanoseconds. Every power of two is divided into eight linear sub-buckets, which keeps the relative error of any reported value below 12.5% over the entire {@code long} range with only a few hundred buckets.
+ * <br><br>
+ * Recording never allocates and is meant to be done by a single thread. Any other thread may read the histogram at the same time, but should preferably use a copy made by {@code LoopStats.snapshot(LoopStats)}.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+public class Histogram
+{
+	private static final int SUB_BITS 	= 3;
+	private static final int SUB_COUNT 	= 1 << SUB_BITS;
+	private static final int SUB_MASK 	= SUB_COUNT - 1;
+	
+	/**
+	 * The amount of buckets in every histogram.
+	 * @since 1.1.0
+	 */
+	public static final int BUCKETS = (64 - SUB_BITS) * SUB_COUNT;
+	
+	private static final int SUM 	= BUCKETS;
+	private static final int COUNT 	= BUCKETS + 1;
+	
+	/**
+	 * Returns the bucket index the given value is counted in. Negative values are counted in the first bucket.
+	 * @param value - the value to find the bucket of
+	 * @return the bucket index of the value
+	 * @since 1.1.0
+	 */
+	public static int bucketOf(long value)
+	{
+		if (value < SUB_COUNT) return (value < 0)? 0: (int)value;
+		int magnitude = 63 - Long.numberOfLeadingZeros(value);
+		int shift = magnitude - SUB_BITS;
+		return ((shift + 1) << SUB_BITS) + (int)((value >>> shift) & SUB_MASK);
+	}
+	
+	/**
+	 * Returns the smallest value that is counted in the given bucket.
+	 * @param bucket - the bucket index
+	 * @return the smallest value of the bucket
+	 * @since 1.1.0
+	 */
+	public static long lowerBound(int bucket)
+	{
+		if (bucket < SUB_COUNT) return bucket;
+		int shift = (bucket >>> SUB_BITS) - 1;
+		return (long)(SUB_COUNT + (bucket & SUB_MASK)) << shift;
+	}
+	
+	/**
+	 * Returns the largest value that is counted in the given bucket.
+	 * @param bucket - the bucket index
+	 * @return the largest value of the bucket
+	 * @since 1.1.0
+	 */
+	public static long upperBound(int bucket)
+	{
+		if (bucket >= BUCKETS - 1) return Long.MAX_VALUE;
+		return lowerBound(bucket + 1) - 1;
+	}
+	
+	// ====================================
+	
+	private final AtomicLongArray counts;
+	
+	/**
+	 * Creates a new empty {@code Histogram}.
+	 * @since 1.1.0
+	 */
+	public Histogram()
+	{
+		counts = new AtomicLongArray(BUCKETS + 2);
+	}
+	
+	/**
+	 * Counts the given value in this histogram. This method should only be invoked by one thread at a time.
+	 * @param value - the value to record
+	 * @since 1.1.0
+	 */
+	public void record(long value)
+	{
+		int i = bucketOf(value);
+		counts.lazySet(i, counts.get(i) + 1);
+		counts.lazySet(SUM, counts.get(SUM) + value);
+		counts.lazySet(COUNT, counts.get(COUNT) + 1);
+	}
+	
+	/**
+	 * Returns the amount of recorded values.
+	 * @return the amount of recorded values
+	 * @since 1.1.0
+	 */
+	public long getCount()
+	{
+		return counts.get(COUNT);
+	}
+	
+	/**
+	 * Returns the amount of recorded values in the given bucket.
+	 * @param bucket - the bucket index
+	 * @return the amount of recorded values in the bucket
+	 * @since 1.1.0
+	 */
+	public long getCount(int bucket)
+	{
+		return counts.get(bucket);
+	}
+	
+	/**
+	 * Returns the sum of all recorded values.
+	 * @return the sum of all recorded values
+	 * @since 1.1.0
+	 */
+	public long getSum()
+	{
+		return counts.get(SUM);
+	}
+	
+	/**
+	 * Returns the exact average of all recorded values, or zero if the histogram is empty.
+	 * @return the average of all recorded values
+	 * @since 1.1.0
+	 */
+	public double getMean()
+	{
+		long count = getCount();
+		return (count == 0)? 0d: (double)getSum() / (double)count;
+	}
+	
+	/**
+	 * Returns the upper bound of the highest bucket that holds a value, or zero if the histogram is empty.
+	 * @return the approximate largest recorded value
+	 * @since 1.1.0
+	 */
+	public long getMax()
+	{
+		for (int i=BUCKETS-1; i>=0; i--)
+		{
+			if (counts.get(i) > 0) return upperBound(i);
+		}
+		return 0;
+	}
+	
+	/**
+	 * Returns the upper bound of the bucket at which the given percentage of values has been recorded, or zero if the histogram is empty.
+	 * @param percentile - the percentile as a factor between 0 and 1
+	 * @return the approximate value at the given percentile
+	 * @since 1.1.0
+	 */
+	public long getPercentile(double percentile)
+	{
+		long count = getCount();
+		if (count == 0) return 0;
+		
+		long target = (long)Math.ceil(percentile * count);
+		target = (target<1)? 1: target;
+		long seen = 0;
+		for (int i=0; i<BUCKETS; i++)
+		{
+			seen += counts.get(i);
+			if (seen >= target) return upperBound(i);
+		}
+		return getMax();
+	}
+	
+	/**
+	 * Removes all recorded values. This method should only be invoked by the thread that records.
+	 * @since 1.1.0
+	 */
+	public void clear()
+	{
+		for (int i=0, l=counts.length(); i<l; i++)
+		{
+			counts.lazySet(i, 0);
+		}
+	}
+	
+	/**
+	 * Sets the content of this histogram to the difference of {@code current} minus {@code base}. Passing {@code null} as base copies the current histogram.
+	 * @param current - the histogram to copy
+	 * @param base - the histogram to subtract, or {@code null}
+	 * @since 1.1.0
+	 */
+	void difference(Histogram current, Histogram base)
+	{
+		for (int i=0, l=counts.length(); i<l; i++)
+		{
+			long value = current.counts.get(i);
+			if (base != null) value -= base.counts.get(i);
+			counts.lazySet(i, value);
+		}
+	}
+}
@@ -0,0 +1,281 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.stats;
+
+/**
+ * Collects timing statistics of a game loop. Every loop fills in its own {@code LoopStats} which can be obtained with {@code getStats()}. It holds histograms of the update, render and frame times and of how far the loop overshot its wake-up deadline, all in nanoseconds. Alongside the histograms it counts the updates(ticks), frames and catch-up bursts. A catch-up burst is a frame in which more than one update had to be performed to catch up on lost time. When a loop limits the amount of updates per frame, it also counts how often that limit was reached and how much game time had to be discarded because of it.
+ * <br><br>
+ * The loop thread records without allocating any objects. A reporting thread can copy the statistics at any time with {@code snapshot(LoopStats)} into a {@code LoopStats} object it owns, and start a new measuring interval with {@code reset()}. Resetting doesn't write to the counters of the loop thread, it only remembers their current values, so no recorded values are lost or torn.
+ * <pre>
+ * LoopStats report = new LoopStats();
+ * loop.getStats().snapshot(report);
+ * loop.getStats().reset();
+ * System.out.println( report.getFrameTime().getPercentile(0.99) );
+ * </pre>
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+public class LoopStats
+{
+	private final Histogram update_time 	= new Histogram();
+	private final Histogram render_time 	= new Histogram();
+	private final Histogram frame_time 		= new Histogram();
+	private final Histogram overshoot 		= new Histogram();
+	private volatile long ticks 	= 0;
+	private volatile long frames 	= 0;
+	private volatile long catchups 	= 0;
+	private volatile long limits 	= 0;
+	private volatile long dropped 	= 0;
+	private volatile long skipped 	= 0;
+	private volatile long hiccups 	= 0;
+	private volatile long stalled 	= 0;
+	private LoopStats base 			= null;
+	
+	/**
+	 * Creates a new empty {@code LoopStats} object.
+	 * @since 1.1.0
+	 */
+	public LoopStats() {}
+	
+	/**
+	 * Records the duration of a single update.
+	 * @param nanos - the duration of the update in nanoseconds
+	 * @since 1.1.0
+	 */
+	public void recordUpdate(long nanos)
+	{
+		update_time.record(nanos);
+		ticks = ticks + 1;
+	}
+	
+	/**
+	 * Records the duration of a single render.
+	 * @param nanos - the duration of the render in nanoseconds
+	 * @since 1.1.0
+	 */
+	public void recordRender(long nanos)
+	{
+		render_time.record(nanos);
+	}
+	
+	/**
+	 * Records the completion of a frame.
+	 * @param nanos - the time since the previous frame in nanoseconds
+	 * @param updates - the amount of updates performed during this frame
+	 * @since 1.1.0
+	 */
+	public void recordFrame(long nanos, int updates)
+	{
+		frame_time.record(nanos);
+		frames = frames + 1;
+		if (updates > 1) catchups = catchups + 1;
+	}
+	
+	/**
+	 * Records that the loop has reached its maximum amount of updates in a single frame, or its maximum time step in variable time stepping loops.
+	 * @param nanos - the amount of game time in nanoseconds that has been discarded
+	 * @since 1.1.0
+	 */
+	public void recordCatchUpLimit(long nanos)
+	{
+		limits = limits + 1;
+		dropped = dropped + nanos;
+	}
+	
+	/**
+	 * Records a frame in which rendering was skipped to leave more time for updates.
+	 * @since 1.1.0
+	 */
+	public void recordSkippedRender()
+	{
+		skipped = skipped + 1;
+	}
+	
+	/**
+	 * Records a gap between two frames far beyond the target frame time, like a garbage collection pause or a suspended process.
+	 * @param nanos - the length of the gap in nanoseconds
+	 * @since 1.1.0
+	 */
+	public void recordHiccup(long nanos)
+	{
+		hiccups = hiccups + 1;
+		stalled = stalled + nanos;
+	}
+	
+	/**
+	 * Records how late the loop woke up after idling.
+	 * @param nanos - the wake-up overshoot in nanoseconds
+	 * @since 1.1.0
+	 */
+	public void recordOvershoot(long nanos)
+	{
+		overshoot.record(nanos);
+	}
+	
+	/**
+	 * Copies the statistics recorded since the last reset into the given object.
+	 * @param into - the {@code LoopStats} to copy into
+	 * @since 1.1.0
+	 */
+	public synchronized void snapshot(LoopStats into)
+	{
+		LoopStats b = base;
+		into.update_time.difference(update_time, (b==null)? null: b.update_time);
+		into.render_time.difference(render_time, (b==null)? null: b.render_time);
+		into.frame_time.difference(frame_time, (b==null)? null: b.frame_time);
+		into.overshoot.difference(overshoot, (b==null)? null: b.overshoot);
+		into.ticks 		= ticks - ((b==null)? 0: b.ticks);
+		into.frames 	= frames - ((b==null)? 0: b.frames);
+		into.catchups 	= catchups - ((b==null)? 0: b.catchups);
+		into.limits 	= limits - ((b==null)? 0: b.limits);
+		into.dropped 	= dropped - ((b==null)? 0: b.dropped);
+		into.skipped 	= skipped - ((b==null)? 0: b.skipped);
+		into.hiccups 	= hiccups - ((b==null)? 0: b.hiccups);
+		into.stalled 	= stalled - ((b==null)? 0: b.stalled);
+	}
+	
+	/**
+	 * Starts a new measuring interval. Statistics returned by this object and copied by {@code snapshot(LoopStats)} will only contain values recorded after this call. This method may be invoked from any thread.
+	 * @since 1.1.0
+	 */
+	public synchronized void reset()
+	{
+		if (base == null) base = new LoopStats();
+		LoopStats b = base;
+		b.update_time.difference(update_time, null);
+		b.render_time.difference(render_time, null);
+		b.frame_time.difference(frame_time, null);
+		b.overshoot.difference(overshoot, null);
+		b.ticks 	= ticks;
+		b.frames 	= frames;
+		b.catchups 	= catchups;
+		b.limits 	= limits;
+		b.dropped 	= dropped;
+		b.skipped 	= skipped;
+		b.hiccups 	= hiccups;
+		b.stalled 	= stalled;
+	}
+	
+	/**
+	 * Returns the histogram of update durations in nanoseconds. This histogram is written to by the loop thread and does not honor {@code reset()}. Use {@code snapshot(LoopStats)} to read it from another thread.
+	 * @return the histogram of update durations
+	 * @since 1.1.0
+	 */
+	public Histogram getUpdateTime()
+	{
+		return update_time;
+	}
+	
+	/**
+	 * Returns the histogram of render durations in nanoseconds. This histogram is written to by the loop thread and does not honor {@code reset()}. Use {@code snapshot(LoopStats)} to read it from another thread.
+	 * @return the histogram of render durations
+	 * @since 1.1.0
+	 */
+	public Histogram getRenderTime()
+	{
+		return render_time;
+	}
+	
+	/**
+	 * Returns the histogram of the time between frames in nanoseconds. This histogram is written to by the loop thread and does not honor {@code reset()}. Use {@code snapshot(LoopStats)} to read it from another thread.
+	 * @return the histogram of frame times
+	 * @since 1.1.0
+	 */
+	public Histogram getFrameTime()
+	{
+		return frame_time;
+	}
+	
+	/**
+	 * Returns the histogram of wake-up overshoots in nanoseconds. This histogram is written to by the loop thread and does not honor {@code reset()}. Use {@code snapshot(LoopStats)} to read it from another thread.
+	 * @return the histogram of wake-up overshoots
+	 * @since 1.1.0
+	 */
+	public Histogram getOvershoot()
+	{
+		return overshoot;
+	}
+	
+	/**
+	 * Returns the amount of updates performed.
+	 * @return the amount of updates performed
+	 * @since 1.1.0
+	 */
+	public long getTicks()
+	{
+		return ticks;
+	}
+	
+	/**
+	 * Returns the amount of frames completed.
+	 * @return the amount of frames completed
+	 * @since 1.1.0
+	 */
+	public long getFrames()
+	{
+		return frames;
+	}
+	
+	/**
+	 * Returns the amount of frames in which more than one update was performed to catch up on lost time.
+	 * @return the amount of catch-up bursts
+	 * @since 1.1.0
+	 */
+	public long getCatchUps()
+	{
+		return catchups;
+	}
+	
+	/**
+	 * Returns the amount of frames in which the maximum amount of updates was reached.
+	 * @return the amount of times the catch-up limit was reached
+	 * @since 1.1.0
+	 */
+	public long getCatchUpLimits()
+	{
+		return limits;
+	}
+	
+	/**
+	 * Returns the total amount of game time in nanoseconds that has been discarded because the catch-up limit or the maximum time step was reached.
+	 * @return the discarded game time in nanoseconds
+	 * @since 1.1.0
+	 */
+	public long getDroppedTime()
+	{
+		return dropped;
+	}
+	
+	/**
+	 * Returns the amount of frames in which rendering was skipped because the loop was overloaded.
+	 * @return the amount of skipped renders
+	 * @since 1.1.0
+	 */
+	public long getSkippedRenders()
+	{
+		return skipped;
+	}
+	
+	/**
+	 * Returns the amount of gaps between frames far beyond the target frame time.
+	 * @return the amount of hiccups
+	 * @since 1.1.0
+	 */
+	public long getHiccups()
+	{
+		return hiccups;
+	}
+	
+	/**
+	 * Returns the total length in nanoseconds of all hiccups.
+	 * @return the total hiccup time in nanoseconds
+	 * @since 1.1.0
+	 */
+	public long getHiccupTime()
+	{
+		return stalled;
+	}
+}
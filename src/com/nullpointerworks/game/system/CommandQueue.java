@@ -0,0 +1,148 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.system;
+
+import java.util.ArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lock-free multi-producer, single-consumer queue of {@code GameSystem} commands. Any thread may offer commands, while only the loop thread drains them. The commands are stored in a bounded ring of preallocated slots. Producers claim a slot with a single compare-and-set and publish it by writing the slot's sequence number, so offering a command neither locks nor allocates.
+ * <br><br>
+ * When the ring is full, commands are appended to a synchronized overflow list instead, so a producer never has to wait for the loop thread. Once a producer has overflowed, all producers use the overflow list until the loop thread has drained it, which keeps the commands of each producer in order.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+class CommandQueue
+{
+	static final int ENABLE = 0;
+	static final int ADD 	= 1;
+	static final int REMOVE = 2;
+	
+	private final int mask;
+	private final AtomicLongArray sequence;
+	private final AtomicLong tail = new AtomicLong(0);
+	private final int[] types;
+	private final int[][] lists;
+	private final GameElement[] elements;
+	private final int[] ids;
+	private long head = 0;
+	
+	private final ArrayList<Command> overflow = new ArrayList<Command>();
+	private volatile boolean overflowed = false;
+	
+	CommandQueue(int capacity)
+	{
+		int size = Integer.highestOneBit( (capacity<2)? 2: capacity );
+		size = (size < capacity)? size << 1: size;
+		mask 		= size - 1;
+		sequence 	= new AtomicLongArray(size);
+		types 		= new int[size];
+		lists 		= new int[size][];
+		elements 	= new GameElement[size];
+		ids 		= new int[size];
+		for (int i=0; i<size; i++) sequence.set(i, i);
+	}
+	
+	/*
+	 * safe to invoke from any thread
+	 */
+	void offer(int type, int[] list, GameElement element, int id)
+	{
+		if (!overflowed)
+		{
+			long pos = tail.get();
+			while (true)
+			{
+				int i = (int)(pos & mask);
+				long dif = sequence.get(i) - pos;
+				if (dif == 0)
+				{
+					if (tail.compareAndSet(pos, pos + 1))
+					{
+						types[i] 	= type;
+						lists[i] 	= list;
+						elements[i] = element;
+						ids[i] 		= id;
+						sequence.lazySet(i, pos + 1);
+						return;
+					}
+					pos = tail.get();
+				}
+				else if (dif < 0)
+				{
+					break; // full
+				}
+				else
+				{
+					pos = tail.get();
+				}
+			}
+		}
+		
+		synchronized (overflow)
+		{
+			overflowed = true;
+			overflow.add(new Command(type, list, element, id));
+		}
+	}
+	
+	/*
+	 * executes all published commands on the system. loop thread only.
+	 */
+	void drain(GameSystem system)
+	{
+		while (true)
+		{
+			int i = (int)(head & mask);
+			if (sequence.get(i) != head + 1) break;
+			
+			int type 			= types[i];
+			int[] list 			= lists[i];
+			GameElement element = elements[i];
+			int id 				= ids[i];
+			lists[i] 	= null;
+			elements[i] = null;
+			sequence.lazySet(i, head + mask + 1);
+			head++;
+			
+			system.execute(type, list, element, id);
+		}
+		
+		/*
+		 * the overflow list may only be drained once every slot claimed 
+		 * before it has been executed, to keep the commands in order
+		 */
+		if (!overflowed || head != tail.get()) return;
+		Command[] pending;
+		synchronized (overflow)
+		{
+			pending = overflow.toArray(new Command[overflow.size()]);
+			overflow.clear();
+			overflowed = false;
+		}
+		for (Command c : pending)
+		{
+			system.execute(c.type, c.list, c.element, c.id);
+		}
+	}
+	
+	private static class Command
+	{
+		final int type;
+		final int[] list;
+		final GameElement element;
+		final int id;
+		
+		Command(int type, int[] list, GameElement element, int id)
+		{
+			this.type = type;
+			this.list = list;
+			this.element = element;
+			this.id = id;
+		}
+	}
+}
@@ -0,0 +1,149 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.system;
+
+/**
+ * Maps element identifiers to the elements of a {@code GameSystem} without boxing. The table uses open addressing with linear probing on primitive {@code int} keys. Multiple elements may share an identifier, in which case the slot holds the first one and the others are chained through the elements themselves in order of registration.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+class ElementIndex
+{
+	private int[] keys;
+	private GameElement[] heads;
+	private int mask;
+	private int size = 0;
+	
+	ElementIndex()
+	{
+		allocate(16);
+	}
+	
+	/*
+	 * returns the first element registered with the identifier, or null
+	 */
+	GameElement get(int id)
+	{
+		int i = hash(id) & mask;
+		GameElement head;
+		while ((head = heads[i]) != null)
+		{
+			if (keys[i] == id) return head;
+			i = (i + 1) & mask;
+		}
+		return null;
+	}
+	
+	void add(GameElement element)
+	{
+		int id = element.getID();
+		element.nextByID = null;
+		int i = hash(id) & mask;
+		GameElement head;
+		while ((head = heads[i]) != null)
+		{
+			if (keys[i] == id)
+			{
+				while (head.nextByID != null) head = head.nextByID;
+				head.nextByID = element;
+				return;
+			}
+			i = (i + 1) & mask;
+		}
+		
+		keys[i] = id;
+		heads[i] = element;
+		if (++size > (heads.length >>> 1) + (heads.length >>> 2)) allocate(heads.length << 1);
+	}
+	
+	void remove(GameElement element, int id)
+	{
+		int i = hash(id) & mask;
+		GameElement head;
+		while ((head = heads[i]) != null)
+		{
+			if (keys[i] == id) break;
+			i = (i + 1) & mask;
+		}
+		if (head == null) return;
+		
+		if (head != element)
+		{
+			while (head.nextByID != null && head.nextByID != element) head = head.nextByID;
+			if (head.nextByID == element) head.nextByID = element.nextByID;
+			element.nextByID = null;
+			return;
+		}
+		
+		if (element.nextByID != null)
+		{
+			heads[i] = element.nextByID;
+			element.nextByID = null;
+			return;
+		}
+		
+		/*
+		 * last element with this identifier. shift the following entries back to close the gap.
+		 */
+		heads[i] = null;
+		size--;
+		int j = i;
+		while (true)
+		{
+			j = (j + 1) & mask;
+			if (heads[j] == null) return;
+			int home = hash(keys[j]) & mask;
+			if (((j - home) & mask) >= ((j - i) & mask))
+			{
+				keys[i] = keys[j];
+				heads[i] = heads[j];
+				heads[j] = null;
+				i = j;
+			}
+		}
+	}
+	
+	void clear()
+	{
+		for (int i=0; i<heads.length; i++)
+		{
+			GameElement el = heads[i];
+			while (el != null)
+			{
+				GameElement n = el.nextByID;
+				el.nextByID = null;
+				el = n;
+			}
+			heads[i] = null;
+		}
+		size = 0;
+	}
+	
+	private void allocate(int capacity)
+	{
+		int[] oldKeys = keys;
+		GameElement[] oldHeads = heads;
+		keys = new int[capacity];
+		heads = new GameElement[capacity];
+		mask = capacity - 1;
+		if (oldHeads == null) return;
+		
+		for (int k=0; k<oldHeads.length; k++)
+		{
+			if (oldHeads[k] == null) continue;
+			int i = hash(oldKeys[k]) & mask;
+			while (heads[i] != null) i = (i + 1) & mask;
+			keys[i] = oldKeys[k];
+			heads[i] = oldHeads[k];
+		}
+	}
+	
+	private static int hash(int id)
+	{
+		int h = id * 0x9E3779B9;
+		return h ^ (h >>> 16);
+	}
+}
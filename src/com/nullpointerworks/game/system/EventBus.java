@@ -0,0 +1,232 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.system;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Passes events between the elements of a {@code GameSystem} without allocating. Every system owns one, available through {@code getEvents()}, which is dispatched once at the start of each update, after the timer wheel has advanced and before any element is updated. Events published during a tick are therefore received during the next one, in the order they were published, including events published by listeners while the bus is dispatched.
+ * <br><br>
+ * Events are stored in a bounded ring of preallocated {@code GameEvent} slots. A publisher claims a slot with a single compare-and-set, fills in its payload and publishes it, so publishing neither locks nor allocates, and may be done from any thread, including the threads of a parallel update. When the ring is full, the claimed event is a scratch event that's silently discarded on publish, and counted as dropped. A claimed event should be published right away, since the bus can't dispatch past an event that's claimed but not yet published.
+ * <pre>
+ * getParent().getEvents().claim(DAMAGE, getID()).setInt(target).setDouble(12.5).publish();
+ * </pre>
+ * Listeners subscribe to event types, which are small integers chosen by the game. Subscribing and unsubscribing should only be done on the loop thread.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ * @see GameEvent
+ * @see EventListener
+ */
+public class EventBus
+{
+	private static final EventListener[] NONE = new EventListener[0];
+	
+	private final int mask;
+	private final GameEvent[] events;
+	private final AtomicLongArray sequence;
+	private final AtomicLong tail = new AtomicLong(0);
+	private final AtomicLong dropped = new AtomicLong(0);
+	private final GameEvent scratch = new GameEvent(this, -1);
+	private EventListener[][] listeners = new EventListener[0][];
+	private long head = 0;
+	private long dispatched = 0;
+	
+	/**
+	 * Creates a new {@code EventBus} with room for the given amount of events per tick. The capacity is rounded up to a power of two.
+	 * @param capacity - the maximum amount of undispatched events
+	 * @since 1.1.0
+	 */
+	public EventBus(int capacity)
+	{
+		int size = Integer.highestOneBit( (capacity<2)? 2: capacity );
+		size = (size < capacity)? size << 1: size;
+		mask 		= size - 1;
+		events 		= new GameEvent[size];
+		sequence 	= new AtomicLongArray(size);
+		for (int i=0; i<size; i++)
+		{
+			events[i] = new GameEvent(this, i);
+			sequence.set(i, i);
+		}
+	}
+	
+	/**
+	 * Subscribes a listener to an event type. A listener that subscribes twice receives the events twice.
+	 * @param type - the event type of zero or more
+	 * @param listener - the listener to receive the events
+	 * @since 1.1.0
+	 */
+	public void subscribe(int type, EventListener listener)
+	{
+		if (type < 0)
+		{
+			throw new IllegalArgumentException("Event type out of range: "+type);
+		}
+		if (type >= listeners.length)
+		{
+			EventListener[][] grown = new EventListener[type + 1][];
+			System.arraycopy(listeners, 0, grown, 0, listeners.length);
+			for (int i=listeners.length; i<grown.length; i++) grown[i] = NONE;
+			listeners = grown;
+		}
+		
+		EventListener[] list = listeners[type];
+		EventListener[] next = new EventListener[list.length + 1];
+		System.arraycopy(list, 0, next, 0, list.length);
+		next[list.length] = listener;
+		listeners[type] = next;
+	}
+	
+	/**
+	 * Removes a subscription of a listener to an event type.
+	 * @param type - the event type
+	 * @param listener - the listener to remove
+	 * @since 1.1.0
+	 */
+	public void unsubscribe(int type, EventListener listener)
+	{
+		if (type < 0 || type >= listeners.length) return;
+		EventListener[] list = listeners[type];
+		for (int i=0; i<list.length; i++)
+		{
+			if (list[i] != listener) continue;
+			EventListener[] next = (list.length == 1)? NONE: new EventListener[list.length - 1];
+			System.arraycopy(list, 0, next, 0, i);
+			System.arraycopy(list, i + 1, next, i, list.length - i - 1);
+			listeners[type] = next;
+			return;
+		}
+	}
+	
+	/**
+	 * Claims an event slot to publish an event of the given type, without a source element. Safe to invoke from any thread.
+	 * @param type - the type of the event
+	 * @return the event to fill in and publish
+	 * @since 1.1.0
+	 */
+	public GameEvent claim(int type)
+	{
+		return claim(type, -1);
+	}
+	
+	/**
+	 * Claims an event slot to publish an event of the given type. The payload of the event is cleared. Safe to invoke from any thread.
+	 * @param type - the type of the event
+	 * @param source - the identifier of the publishing element, or {@code -1}
+	 * @return the event to fill in and publish
+	 * @since 1.1.0
+	 */
+	public GameEvent claim(int type, int source)
+	{
+		long pos = tail.get();
+		while (true)
+		{
+			int i = (int)(pos & mask);
+			long dif = sequence.get(i) - pos;
+			if (dif == 0)
+			{
+				if (tail.compareAndSet(pos, pos + 1))
+				{
+					GameEvent e = events[i];
+					e.reset(pos, type, source);
+					return e;
+				}
+				pos = tail.get();
+			}
+			else if (dif < 0)
+			{
+				dropped.incrementAndGet(); // full
+				scratch.reset(-1, type, source);
+				return scratch;
+			}
+			else
+			{
+				pos = tail.get();
+			}
+		}
+	}
+	
+	/**
+	 * Publishes a claimed event, to be dispatched at the start of the next update. Publishing an event more than once has no effect. Safe to invoke from any thread.
+	 * @param event - the event returned by {@code claim(int, int)}
+	 * @since 1.1.0
+	 */
+	public void publish(GameEvent event)
+	{
+		long claimed = event.claimed; // the scratch event is shared between publishers
+		if (claimed < 0) return;
+		
+		/*
+		 * unclaim before handing the slot over. once published, the slot may be dispatched
+		 * and claimed again by another thread, whose claim must not be overwritten.
+		 */
+		event.claimed = -1;
+		sequence.lazySet(event.index, claimed + 1);
+	}
+	
+	/**
+	 * Invokes the subscribed listeners for every event published since the last dispatch. Events published while dispatching are left for the next dispatch. Invoked by the {@code GameSystem} at the start of every update, on the loop thread.
+	 * @since 1.1.0
+	 */
+	public void dispatch()
+	{
+		long end = tail.get();
+		while (head < end)
+		{
+			int i = (int)(head & mask);
+			if (sequence.get(i) != head + 1) break; // claimed, not yet published
+			
+			GameEvent e = events[i];
+			int type = e.getType();
+			EventListener[] list = (type >= 0 && type < listeners.length)? listeners[type]: NONE;
+			try
+			{
+				for (int l=0; l<list.length; l++)
+				{
+					list[l].onEvent(e);
+				}
+			}
+			finally
+			{
+				e.setObject(null);
+				sequence.lazySet(i, head + mask + 1);
+				head++;
+				dispatched++;
+			}
+		}
+	}
+	
+	/**
+	 * Returns the maximum amount of undispatched events.
+	 * @return the capacity of the ring
+	 * @since 1.1.0
+	 */
+	public int getCapacity()
+	{
+		return mask + 1;
+	}
+	
+	/**
+	 * Returns the amount of events dispatched so far.
+	 * @return the amount of dispatched events
+	 * @since 1.1.0
+	 */
+	public long getDispatched()
+	{
+		return dispatched;
+	}
+	
+	/**
+	 * Returns the amount of events discarded because the ring was full.
+	 * @return the amount of dropped events
+	 * @since 1.1.0
+	 */
+	public long getDropped()
+	{
+		return dropped.get();
+	}
+}
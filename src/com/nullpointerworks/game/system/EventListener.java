@@ -0,0 +1,22 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.system;
+
+/**
+ * Event interface for events published on an {@code EventBus}.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ * @see EventBus
+ */
+public interface EventListener
+{
+	/**
+	 * Invoked for every published event of a type this listener subscribed to. The event is reused once all listeners have been invoked, so it should not be kept.
+	 * @param event - the published event
+	 * @since 1.1.0
+	 */
+	public void onEvent(GameEvent event);
+}
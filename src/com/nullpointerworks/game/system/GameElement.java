@@ -17,9 +17,18 @@ import com.nullpointerworks.game.LoopListener;
  */
 public abstract class GameElement implements LoopListener
 {
+	/**
+	 * The update phase of elements that are not safe to update in parallel.
+	 * @since 1.1.0
+	 */
+	public static final int SERIAL = -1;
+	
 	private GameSystem parent;
 	private int elementID = -1;
 	private boolean enabled = false;
+	private int updatePhase = SERIAL;
+	GameElement nextByID = null;
+	int enableOrder = 0;
 	
 	/**
 	 * Invoked when this element is enabled.
@@ -40,6 +49,18 @@ public abstract class GameElement implements LoopListener
 	 */
 	public void onTransition() {}
 	
+	/**
+	 * When the parent GameSystem rolls back to an earlier tick, this 
+	 * method is invoked after its state has been restored, before 
+	 * simulating forward again. Elements that cache values derived 
+	 * from their state in the {@code SnapshotRing} should refresh 
+	 * them here.
+	 * @param tick - the tick the system rolled back to
+	 * @since 1.1.0
+	 * @see GameSystem#rollback(long, double)
+	 */
+	public void onRollback(long tick) {}
+	
 	//===================================
 	
 	/**
@@ -114,6 +135,37 @@ public abstract class GameElement implements LoopListener
 	 */
 	protected final void setID(int id) 
 	{
+		int old = elementID;
 		elementID = id;
+		if (parent != null && old != id) parent.changeID(this, old);
+	}
+	
+	/**
+	 * Returns the parallel update phase of this element, or 
+	 * {@code SERIAL} if it's updated serially.
+	 * @return the update phase of this element
+	 * @since 1.1.0
+	 */
+	public final int getUpdatePhase()
+	{
+		return updatePhase;
+	}
+	
+	/**
+	 * Declares this element safe to update in parallel with all other 
+	 * elements of the same phase. When the parent {@code GameSystem} has 
+	 * a parallel update pool, phases are updated in ascending order 
+	 * after all serial elements. An element may only touch its own 
+	 * state, or state that's not touched by any other element in the 
+	 * same phase. By default, elements are updated serially.
+	 * @param phase - the update phase of zero or more, or {@code SERIAL} 
+	 * to update serially
+	 * @since 1.1.0
+	 * @see GameSystem#setUpdatePool(java.util.concurrent.ForkJoinPool)
+	 */
+	protected final void setUpdatePhase(int phase)
+	{
+		updatePhase = (phase<0)? SERIAL: phase;
+		if (parent != null) parent.invalidatePhases();
 	}
 }
@@ -0,0 +1,164 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.system;
+
+/**
+ * A reusable event slot of an {@code EventBus}. An event has a type, the identifier of the element that published it, and a small payload of an integer, a long, a double and an object reference. What the payload means is up to the type of event. The setters return the event itself, so the payload can be filled in with a single chain of calls.
+ * <br><br>
+ * Events are owned by the bus. They're claimed with {@code EventBus.claim(int, int)} and handed back with {@code publish()}, and should not be kept after they have been published or dispatched.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ * @see EventBus
+ */
+public class GameEvent
+{
+	private final EventBus bus;
+	final int index;
+	long claimed = -1;
+	private int type;
+	private int source;
+	private int intValue;
+	private long longValue;
+	private double doubleValue;
+	private Object object;
+	
+	GameEvent(EventBus bus, int index)
+	{
+		this.bus = bus;
+		this.index = index;
+	}
+	
+	/**
+	 * Returns the type of this event.
+	 * @return the event type
+	 * @since 1.1.0
+	 */
+	public int getType()
+	{
+		return type;
+	}
+	
+	/**
+	 * Returns the identifier of the element that published this event, or {@code -1} if it was published by something else.
+	 * @return the identifier of the publisher
+	 * @since 1.1.0
+	 */
+	public int getSource()
+	{
+		return source;
+	}
+	
+	/**
+	 * Returns the integer of the payload.
+	 * @return the integer of the payload
+	 * @since 1.1.0
+	 */
+	public int getInt()
+	{
+		return intValue;
+	}
+	
+	/**
+	 * Returns the long of the payload.
+	 * @return the long of the payload
+	 * @since 1.1.0
+	 */
+	public long getLong()
+	{
+		return longValue;
+	}
+	
+	/**
+	 * Returns the double of the payload.
+	 * @return the double of the payload
+	 * @since 1.1.0
+	 */
+	public double getDouble()
+	{
+		return doubleValue;
+	}
+	
+	/**
+	 * Returns the object of the payload.
+	 * @return the object of the payload, or {@code null}
+	 * @since 1.1.0
+	 */
+	public Object getObject()
+	{
+		return object;
+	}
+	
+	/**
+	 * Set the integer of the payload.
+	 * @param value - the integer to send
+	 * @return this event
+	 * @since 1.1.0
+	 */
+	public GameEvent setInt(int value)
+	{
+		intValue = value;
+		return this;
+	}
+	
+	/**
+	 * Set the long of the payload.
+	 * @param value - the long to send
+	 * @return this event
+	 * @since 1.1.0
+	 */
+	public GameEvent setLong(long value)
+	{
+		longValue = value;
+		return this;
+	}
+	
+	/**
+	 * Set the double of the payload.
+	 * @param value - the double to send
+	 * @return this event
+	 * @since 1.1.0
+	 */
+	public GameEvent setDouble(double value)
+	{
+		doubleValue = value;
+		return this;
+	}
+	
+	/**
+	 * Set the object of the payload. The reference is cleared once the event has been dispatched.
+	 * @param value - the object to send
+	 * @return this event
+	 * @since 1.1.0
+	 */
+	public GameEvent setObject(Object value)
+	{
+		object = value;
+		return this;
+	}
+	
+	/**
+	 * Publishes this event on the bus it was claimed from. Same as {@code EventBus.publish(GameEvent)}.
+	 * @since 1.1.0
+	 */
+	public void publish()
+	{
+		bus.publish(this);
+	}
+	
+	/*
+	 * resets the event for a new claim
+	 */
+	void reset(long claimed, int type, int source)
+	{
+		this.claimed 	= claimed;
+		this.type 		= type;
+		this.source 	= source;
+		intValue 		= 0;
+		longValue 		= 0;
+		doubleValue 	= 0d;
+		object 			= null;
+	}
+}
@@ -6,6 +6,8 @@
 package com.nullpointerworks.game.system;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * The GameSystem is a manager class for handling elements of an 
@@ -23,7 +25,16 @@ import java.util.ArrayList;
 public class GameSystem 
 {
 	private ArrayList<GameElement> elements;
-	private ArrayList<int[]> enableOrders;
+	private CommandQueue commands;
+	private ParallelUpdate parallel;
+	private TimerWheel timers;
+	private SnapshotRing snapshots;
+	private EventBus events;
+	private ElementIndex index;
+	private GameElement[] active;
+	private int activeCount = 0;
+	private int enableOrder = 0;
+	private long tick = 0;
 	
 	/**
 	 * Creates a new GameSystem manager object with an initial capacity of ten.
@@ -32,7 +43,11 @@ public class GameSystem
 	public GameSystem()
 	{
 		elements = new ArrayList<GameElement>();
-		enableOrders = new ArrayList<int[]>();
+		commands = new CommandQueue(1024);
+		timers = new TimerWheel();
+		events = new EventBus(1024);
+		index = new ElementIndex();
+		active = new GameElement[10];
 	}
 	
 	/**
@@ -47,6 +62,178 @@ public class GameSystem
 		element.setID(ID);
 		element.setParent(this);
 		elements.add(element);
+		index.add(element);
+		invalidatePhases();
+	}
+	
+	/**
+	 * Add a game element to the game system from any thread. The 
+	 * element is added before the next rendering frame takes place, 
+	 * in the order of all other queued changes.
+	 * @param element - the {@code GameElement} object to be added
+	 * @param ID - the identifier for this element
+	 * @since 1.1.0
+	 */
+	public void queueElement(GameElement element, int ID)
+	{
+		commands.offer(CommandQueue.ADD, null, element, ID);
+	}
+	
+	/**
+	 * Remove all game elements with the given identifier from the 
+	 * game system. The {@code onDispose()} method is invoked on every 
+	 * removed element. This method may be invoked from any thread. 
+	 * The elements are removed before the next rendering frame takes 
+	 * place, in the order of all other queued changes.
+	 * @param ID - the identifier of the elements to remove
+	 * @since 1.1.0
+	 */
+	public void removeElement(int ID)
+	{
+		commands.offer(CommandQueue.REMOVE, null, null, ID);
+	}
+	
+	/**
+	 * Set the pool used to update elements in parallel. Elements that 
+	 * have declared an update phase are divided over the worker threads 
+	 * of the pool, one phase at a time. All other elements are updated 
+	 * serially on the calling thread before any phase starts. Pass 
+	 * {@code null} to update all elements serially, which is the 
+	 * default.
+	 * @param pool - the {@code ForkJoinPool} to update with, or {@code null}
+	 * @since 1.1.0
+	 * @see GameElement#setUpdatePhase(int)
+	 */
+	public void setUpdatePool(ForkJoinPool pool)
+	{
+		parallel = (pool==null)? null: new ParallelUpdate(pool);
+	}
+	
+	/**
+	 * Returns the pool used to update elements in parallel, or 
+	 * {@code null} if elements are updated serially.
+	 * @return the parallel update pool, or {@code null}
+	 * @since 1.1.0
+	 */
+	public ForkJoinPool getUpdatePool()
+	{
+		return (parallel==null)? null: parallel.getPool();
+	}
+	
+	/**
+	 * Returns the timer wheel of this system. The wheel is advanced 
+	 * by one tick at the start of every {@code update(double)}, before 
+	 * any element is updated, and expired timers are invoked on the 
+	 * updating thread. Elements can use it to schedule delays and 
+	 * cooldowns in ticks through {@code getParent().getTimers()}.
+	 * @return the {@code TimerWheel} of this system
+	 * @since 1.1.0
+	 * @see TimerWheel
+	 */
+	public TimerWheel getTimers()
+	{
+		return timers;
+	}
+	
+	/**
+	 * Returns the event bus of this system. The bus is dispatched at 
+	 * the start of every {@code update(double)}, after the timer wheel 
+	 * has advanced and before any element is updated, so events 
+	 * published during an update are received in the next one. 
+	 * Elements can reach it through {@code getParent().getEvents()}.
+	 * @return the {@code EventBus} of this system
+	 * @since 1.1.0
+	 * @see EventBus
+	 */
+	public EventBus getEvents()
+	{
+		return events;
+	}
+	
+	/**
+	 * Replace the event bus of this system, for instance with one 
+	 * that holds more events per tick than the default of 1024. 
+	 * Should be invoked before any element subscribes.
+	 * @param bus - the {@code EventBus} to use
+	 * @since 1.1.0
+	 */
+	public void setEvents(EventBus bus)
+	{
+		events = bus;
+	}
+	
+	/**
+	 * Set the ring that keeps the simulation state of the elements 
+	 * for rollback, or {@code null} to disable rollback, which is the 
+	 * default. The state slab of the ring is saved as the state at 
+	 * the current tick before every update.
+	 * @param ring - the {@code SnapshotRing} to save the state into
+	 * @since 1.1.0
+	 * @see SnapshotRing
+	 */
+	public void setSnapshots(SnapshotRing ring)
+	{
+		snapshots = ring;
+	}
+	
+	/**
+	 * Returns the ring that keeps the simulation state of the 
+	 * elements, or {@code null} if rollback is disabled.
+	 * @return the {@code SnapshotRing} of this system, or {@code null}
+	 * @since 1.1.0
+	 */
+	public SnapshotRing getSnapshots()
+	{
+		return snapshots;
+	}
+	
+	/**
+	 * Returns the amount of updates this system has performed, which 
+	 * is the tick the next update simulates.
+	 * @return the current tick
+	 * @since 1.1.0
+	 */
+	public long getTick()
+	{
+		return tick;
+	}
+	
+	/**
+	 * Restores the simulation state at the given tick, and simulates 
+	 * forward again to the current tick. The {@code onRollback(long)} 
+	 * method is invoked on all elements after the state has been 
+	 * restored. Elements look up their input for each tick through 
+	 * {@code getParent().getTick()}, so corrected input is picked up 
+	 * while simulating forward.<br>
+	 * <br>
+	 * Only the state slab of the {@code SnapshotRing} is rolled back. 
+	 * The timer wheel and the event bus aren't advanced while 
+	 * simulating forward, and the enabled elements do not change.
+	 * @param tick - the tick to roll back to
+	 * @param time - the time elapsed between updates in seconds
+	 * @return {@code true} if the system rolled back, {@code false} if 
+	 * the state at the given tick is no longer available
+	 * @since 1.1.0
+	 * @see GameElement#onRollback(long)
+	 */
+	public boolean rollback(long tick, double time)
+	{
+		if (snapshots == null || tick > this.tick || !snapshots.restore(tick)) return false;
+		
+		long now = this.tick;
+		this.tick = tick;
+		for (int i=0, l=elements.size(); i<l; i++)
+		{
+			elements.get(i).onRollback(tick);
+		}
+		
+		while (this.tick < now)
+		{
+			snapshots.save(this.tick);
+			updateElements(time);
+			this.tick++;
+		}
+		return true;
 	}
 	
 	/**
@@ -64,7 +251,8 @@ public class GameSystem
 	
 	/**
 	 * Invokes the {@code onDispose()} on all enabled elements.
-	 * This method clears all elements stored in the manager.
+	 * This method clears all elements stored in the manager, and 
+	 * cancels all pending timers.
 	 * @since 1.0.0
 	 */
 	public void disposeAll()
@@ -76,6 +264,11 @@ public class GameSystem
 			elements.set(i, null);
 		}
 		elements.clear();
+		index.clear();
+		Arrays.fill(active, 0, activeCount, null);
+		activeCount = 0;
+		timers.clear();
+		invalidatePhases();
 	}
 	
 	/**
@@ -85,14 +278,26 @@ public class GameSystem
 	 */
 	public void initElement(int ID)
 	{
-		for (int i=0, l=elements.size(); i<l; i++)
+		for (GameElement el = index.get(ID); el != null; el = el.nextByID)
 		{
-			GameElement el = elements.get(i);
-			if (el.getID() == ID) 
-				el.onInit();
+			el.onInit();
 		}
 	}
 	
+	/**
+	 * Returns the element with the given identifier, or {@code null} 
+	 * if there is none. When multiple elements share the identifier, 
+	 * the one that received it first is returned.
+	 * @param ID - the identifier of the game element
+	 * @return the {@code GameElement} with the given identifier, or 
+	 * {@code null}
+	 * @since 1.1.0
+	 */
+	public GameElement getElement(int ID)
+	{
+		return index.get(ID);
+	}
+	
 	/**
 	 * Enable a list of elements by passing their indices to be 
 	 * enabled in the game system. All other elements not specified 
@@ -104,14 +309,19 @@ public class GameSystem
 	 * Changes in the enabling of elements will be applied before 
 	 * the next rendering frame takes place in the system. When 
 	 * they do, the {@code onTransition()} method is invoked on all 
-	 * elements. 
+	 * elements. <br>
+	 * <br>
+	 * This method may be invoked from any thread. The enable orders 
+	 * are passed to the loop thread through a lock-free queue, so 
+	 * the caller never waits. The given array should not be modified 
+	 * afterwards.
 	 * @param IDs - a list of identifiers to be enabled in the 
 	 * game system
 	 * @since 1.0.0
 	 */
 	public void enableElements(int... IDs)
 	{
-		enableOrders.add(IDs);
+		commands.offer(CommandQueue.ENABLE, IDs, null, 0);
 	}
 	
 	/**
@@ -121,11 +331,11 @@ public class GameSystem
 	 */
 	public void update(double time)
 	{
-		for (GameElement el : elements)
-		{
-			if (el.isEnabled())
-				el.onUpdate(time);
-		}
+		if (snapshots != null) snapshots.save(tick);
+		timers.advance();
+		events.dispatch();
+		updateElements(time);
+		tick++;
 	}
 	
 	/**
@@ -135,36 +345,111 @@ public class GameSystem
 	 */
 	public void render(double interpolation)
 	{
-		while (enableOrders.size() > 0)
+		commands.drain(this);
+		
+		GameElement[] els = active;
+		for (int i=0, l=activeCount; i<l; i++)
 		{
-			enable();
+			els[i].onRender(interpolation);
+		}
+	}
+	
+	void invalidatePhases()
+	{
+		if (parallel != null) parallel.invalidate();
+	}
+	
+	void changeID(GameElement element, int old)
+	{
+		index.remove(element, old);
+		index.add(element);
+	}
+	
+	/*
+	 * executes a queued command on the loop thread
+	 */
+	void execute(int type, int[] IDs, GameElement element, int ID)
+	{
+		if (type == CommandQueue.ENABLE)
+		{
+			enable(IDs);
+		}
+		else if (type == CommandQueue.ADD)
+		{
+			addElement(element, ID);
+		}
+		else if (type == CommandQueue.REMOVE)
+		{
+			remove(ID);
+		}
+	}
+	
+	private void updateElements(double time)
+	{
+		if (parallel != null)
+		{
+			parallel.update(active, activeCount, time);
+			return;
 		}
 		
-		for (GameElement el : elements)
+		GameElement[] els = active;
+		for (int i=0, l=activeCount; i<l; i++)
 		{
-			if (el.isEnabled())
-				el.onRender(interpolation);
+			els[i].onUpdate(time);
 		}
 	}
 	
-	private boolean contains(int[] list, int id)
+	private void remove(int ID)
 	{
-		for (int next : list)
+		GameElement el = index.get(ID);
+		while (el != null)
 		{
-			if (id == next) return true;
+			GameElement next = el.nextByID;
+			index.remove(el, ID);
+			elements.remove(el);
+			
+			for (int i=0; i<activeCount; i++)
+			{
+				if (active[i] != el) continue;
+				System.arraycopy(active, i + 1, active, i, activeCount - i - 1);
+				active[--activeCount] = null;
+				break;
+			}
+			
+			el.onDispose();
+			el.setParent(null);
+			el = next;
 		}
-		return false;
+		invalidatePhases();
 	}
 	
-	private void enable()
+	private void enable(int[] enableIDs)
 	{
-		int[] enableIDs = enableOrders.get(0);
-		enableOrders.remove(0);
 		
-		for (int i=0, l=elements.size(); i<l; i++)
+		/*
+		 * mark the elements to enable through the index, instead of 
+		 * searching the identifier list for every element
+		 */
+		int order = ++enableOrder;
+		for (int id : enableIDs)
+		{
+			for (GameElement el = index.get(id); el != null; el = el.nextByID)
+			{
+				el.enableOrder = order;
+			}
+		}
+		
+		/*
+		 * pack the enabled elements in order of registration, so 
+		 * updating and rendering only visit the enabled elements
+		 */
+		int l = elements.size();
+		if (active.length < l) active = new GameElement[l];
+		int count = 0;
+		for (int i=0; i<l; i++)
 		{
 			GameElement el = elements.get(i);
-			if (contains(enableIDs, el.getID()))
+			if (el.enableOrder == order)
 			{
 				el.setEnable(true);
 			}
@@ -172,6 +457,11 @@ public class GameSystem
 			{
 				el.setEnable(false);
 			}
+			if (el.isEnabled()) active[count++] = el;
 		}
+		
+		if (count < activeCount) Arrays.fill(active, count, activeCount, null);
+		activeCount = count;
+		invalidatePhases();
 	}
 }
@@ -0,0 +1,161 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.system;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Updates the elements of a {@code GameSystem} in parallel phases. Elements without a phase are updated first, serially and in order of registration. Afterwards every phase is updated in ascending order. The elements of a phase are split in chunks which are divided over the worker threads of a {@code ForkJoinPool}. A phase only starts after the previous phase has completed.
+ * <br><br>
+ * Only enabled elements are part of the layout. The phase layout is cached and only rebuilt after elements have been enabled, disabled, added or removed, or when an element changes its phase. The fork/join tasks are reused every tick, so no objects are allocated in steady state.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+class ParallelUpdate
+{
+	private static final int MIN_CHUNK = 32;
+	
+	private final ForkJoinPool pool;
+	private final PhaseTask root;
+	private boolean dirty = true;
+	private GameElement[] serial = new GameElement[0];
+	private ChunkTask[][] phases = new ChunkTask[0][];
+	private double time;
+	
+	ParallelUpdate(ForkJoinPool pool)
+	{
+		this.pool = pool;
+		this.root = new PhaseTask();
+	}
+	
+	ForkJoinPool getPool()
+	{
+		return pool;
+	}
+	
+	void invalidate()
+	{
+		dirty = true;
+	}
+	
+	void update(GameElement[] elements, int count, double time)
+	{
+		if (dirty) rebuild(elements, count);
+		this.time = time;
+		
+		GameElement[] ser = serial;
+		for (int i=0, l=ser.length; i<l; i++)
+		{
+			ser[i].onUpdate(time);
+		}
+		
+		for (int i=0, l=phases.length; i<l; i++)
+		{
+			ChunkTask[] chunks = phases[i];
+			if (chunks.length == 1)
+			{
+				chunks[0].compute();
+			}
+			else
+			{
+				root.reinitialize();
+				root.chunks = chunks;
+				pool.invoke(root);
+			}
+		}
+	}
+	
+	/*
+	 * sort the elements into the serial list and phase lists, 
+	 * and divide each phase into reusable chunk tasks.
+	 */
+	private void rebuild(GameElement[] elements, int size)
+	{
+		dirty = false;
+		List<GameElement> ser = new ArrayList<GameElement>();
+		List<Integer> ids = new ArrayList<Integer>();
+		for (int i=0; i<size; i++)
+		{
+			GameElement el = elements[i];
+			int phase = el.getUpdatePhase();
+			if (phase < 0) ser.add(el);
+			else if (!ids.contains(phase)) ids.add(phase);
+		}
+		ids.sort(null);
+		serial = ser.toArray(new GameElement[ser.size()]);
+		
+		int max_chunks = pool.getParallelism() * 4;
+		phases = new ChunkTask[ids.size()][];
+		for (int p=0; p<phases.length; p++)
+		{
+			List<GameElement> members = new ArrayList<GameElement>();
+			for (int i=0; i<size; i++)
+			{
+				if (elements[i].getUpdatePhase() == ids.get(p)) members.add(elements[i]);
+			}
+			GameElement[] els = members.toArray(new GameElement[members.size()]);
+			
+			int count = (els.length + MIN_CHUNK - 1) / MIN_CHUNK;
+			count = (count > max_chunks)? max_chunks: count;
+			count = (count < 1)? 1: count;
+			ChunkTask[] chunks = new ChunkTask[count];
+			for (int c=0; c<count; c++)
+			{
+				int from = (int)((long)els.length * c / count);
+				int to = (int)((long)els.length * (c + 1) / count);
+				chunks[c] = new ChunkTask(els, from, to);
+			}
+			phases[p] = chunks;
+		}
+	}
+	
+	/*
+	 * forks all chunks of a single phase and waits for them to complete
+	 */
+	private class PhaseTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+		private ChunkTask[] chunks;
+		
+		@Override
+		protected void compute()
+		{
+			for (ChunkTask chunk : chunks) chunk.reinitialize();
+			invokeAll(chunks);
+		}
+	}
+	
+	/*
+	 * updates a fixed range of elements within a phase
+	 */
+	private class ChunkTask extends RecursiveAction
+	{
+		private static final long serialVersionUID = 1L;
+		private final GameElement[] elements;
+		private final int from;
+		private final int to;
+		
+		ChunkTask(GameElement[] elements, int from, int to)
+		{
+			this.elements = elements;
+			this.from = from;
+			this.to = to;
+		}
+		
+		@Override
+		protected void compute()
+		{
+			double t = time;
+			for (int i=from; i<to; i++)
+			{
+				elements[i].onUpdate(t);
+			}
+		}
+	}
+}
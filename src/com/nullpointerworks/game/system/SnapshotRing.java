@@ -0,0 +1,179 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.system;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+
+/**
+ * Keeps the simulation state of a {@code GameSystem} in a fixed-size, off-heap slab, and saves a copy of it for each of the last few ticks, so the system can roll back to any of those ticks. It's meant for rollback networking, where a late input requires the simulation to go back a few ticks and simulate forward again.
+ * <br><br>
+ * Elements that take part reserve a region of the slab with {@code allocate(int)}, usually in {@code onInit()}, and keep their state in that region instead of in fields, using the absolute get and put methods of the {@code ByteBuffer} returned by {@code getState()}. Since all state is already in one place, saving a tick is a single bulk copy of the used part of the slab into the ring, and restoring a tick is a single bulk copy back. Neither visits the elements or allocates any objects.
+ * <pre>
+ * offset = ring.allocate(8);
+ * ...
+ * ByteBuffer state = ring.getState();
+ * state.putFloat(offset, state.getFloat(offset) + speed * (float)time);
+ * </pre>
+ * The slab uses the native byte order. A {@code SnapshotRing} is not thread-safe, and should only be used by the thread that updates the system.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ * @see GameSystem#setSnapshots(SnapshotRing)
+ */
+public class SnapshotRing
+{
+	private static final int ALIGN = 8;
+	
+	private final ByteBuffer state;
+	private final ByteBuffer source;
+	private final ByteBuffer target;
+	private final ByteBuffer[] slots;
+	private final long[] ticks;
+	private final int size;
+	private int used = 0;
+	
+	/**
+	 * Creates a new {@code SnapshotRing} with a state slab of the given size, and room for the given amount of ticks.
+	 * @param size - the size of the state slab in bytes
+	 * @param capacity - the amount of ticks to keep, at least one
+	 * @throws IllegalArgumentException when the size is negative, or the ring of all ticks would exceed 2 GiB
+	 * @since 1.1.0
+	 */
+	public SnapshotRing(int size, int capacity)
+	{
+		capacity = (capacity<1)? 1: capacity;
+		long total = (long)size * capacity;
+		if (size < 0)
+		{
+			throw new IllegalArgumentException("Snapshot slab size can't be negative: "+size);
+		}
+		if (total > Integer.MAX_VALUE)
+		{
+			throw new IllegalArgumentException("Snapshot ring of "+capacity+" ticks of "+size+" bytes exceeds "+Integer.MAX_VALUE+" bytes");
+		}
+		this.size = size;
+		state = ByteBuffer.allocateDirect(size).order(ByteOrder.nativeOrder());
+		source = state.duplicate();
+		target = state.duplicate();
+		
+		/*
+		 * one contiguous slab for all ticks, viewed per slot
+		 */
+		ByteBuffer ring = ByteBuffer.allocateDirect((int)total);
+		slots = new ByteBuffer[capacity];
+		ticks = new long[capacity];
+		for (int i=0; i<capacity; i++)
+		{
+			ring.limit(i * size + size).position(i * size);
+			slots[i] = ring.slice();
+			ticks[i] = -1;
+		}
+	}
+	
+	/**
+	 * Reserves a region of the state slab. Regions are aligned at 8 bytes, and are zeroed until written.
+	 * @param bytes - the size of the region in bytes
+	 * @return the offset of the region in the state slab
+	 * @throws IllegalStateException when the slab has no room left for the region
+	 * @since 1.1.0
+	 */
+	public int allocate(int bytes)
+	{
+		int offset = used;
+		int end = offset + ((bytes + ALIGN - 1) & -ALIGN);
+		if (bytes < 0 || end > size)
+		{
+			throw new IllegalStateException("Snapshot slab full, can't allocate "+bytes+" bytes");
+		}
+		used = end;
+		return offset;
+	}
+	
+	/**
+	 * Returns the state slab. Elements should only use the absolute get and put methods on it, and only within their own regions.
+	 * @return the off-heap state slab
+	 * @since 1.1.0
+	 */
+	public ByteBuffer getState()
+	{
+		return state;
+	}
+	
+	/**
+	 * Copies the used part of the state slab into the ring, as the state at the given tick. This replaces the oldest tick once the ring is full. Invoked by the {@code GameSystem} before every update.
+	 * @param tick - the tick the state belongs to
+	 * @since 1.1.0
+	 */
+	public void save(long tick)
+	{
+		int slot = (int)(tick % slots.length);
+		copy(source, slots[slot]);
+		ticks[slot] = tick;
+	}
+	
+	/**
+	 * Copies the state at the given tick from the ring back into the state slab.
+	 * @param tick - the tick to restore
+	 * @return {@code true} if the tick was restored, {@code false} if the ring doesn't hold it
+	 * @since 1.1.0
+	 */
+	public boolean restore(long tick)
+	{
+		if (!contains(tick)) return false;
+		copy(slots[(int)(tick % slots.length)], target);
+		return true;
+	}
+	
+	/**
+	 * Returns {@code true} if the ring holds the state at the given tick.
+	 * @param tick - the tick to look for
+	 * @return {@code true} if the tick can be restored
+	 * @since 1.1.0
+	 */
+	public boolean contains(long tick)
+	{
+		return tick >= 0 && ticks[(int)(tick % slots.length)] == tick;
+	}
+	
+	/**
+	 * Returns the amount of ticks the ring can hold.
+	 * @return the capacity of the ring
+	 * @since 1.1.0
+	 */
+	public int getCapacity()
+	{
+		return slots.length;
+	}
+	
+	/**
+	 * Returns the size of the state slab in bytes.
+	 * @return the size of the state slab
+	 * @since 1.1.0
+	 */
+	public int getSize()
+	{
+		return size;
+	}
+	
+	/**
+	 * Returns the amount of bytes of the state slab reserved by elements. Only this part is copied by saving and restoring.
+	 * @return the amount of reserved bytes
+	 * @since 1.1.0
+	 */
+	public int getUsed()
+	{
+		return used;
+	}
+	
+	// ====================================
+	
+	private void copy(ByteBuffer from, ByteBuffer to)
+	{
+		from.limit(used).position(0);
+		to.clear();
+		to.put(from);
+	}
+}
@@ -0,0 +1,22 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.system;
+
+/**
+ * Event interface for timers scheduled on a {@code TimerWheel}.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ * @see TimerWheel
+ */
+public interface TimerListener
+{
+	/**
+	 * Invoked when a timer has expired. A repeating timer has already been rescheduled when this method is invoked, so it may be cancelled from within.
+	 * @param timer - the handle of the expired timer
+	 * @since 1.1.0
+	 */
+	public void onTimer(long timer);
+}
@@ -0,0 +1,327 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.system;
+
+/**
+ * A hierarchical hashed timer wheel that invokes delayed and repeating {@code TimerListener}s after a number of ticks. Every {@code GameSystem} owns one, which is advanced once at the start of each update. Elements can reach it through {@code getParent().getTimers()} instead of counting down delays and cooldowns themselves every update.
+ * <br><br>
+ * The wheel consists of four levels of 64 slots. The first level holds the timers that expire within the next 64 ticks, one slot per tick. Each following level covers 64 times the range of the previous one, and its timers are moved down a level when their slot comes up. Scheduling and cancelling a timer takes constant time, and a tick only visits the timers that are due, regardless of how many timers are pending. Delays up to 2^24 ticks are placed directly. Longer delays are supported, but are moved around the top level until they come within range.
+ * <br><br>
+ * Timers are stored in a pool of reusable nodes. Scheduling doesn't allocate any objects unless the pool has to grow. A scheduled timer is identified by a {@code long} handle, which is never negative and never reused, so cancelling a timer that has already expired is harmless. A {@code TimerWheel} is not thread-safe.
+ * <pre>
+ * long cooldown = getParent().getTimers().schedule(listener, 90);
+ * ...
+ * getParent().getTimers().cancel(cooldown);
+ * </pre>
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ * @see TimerListener
+ */
+public class TimerWheel
+{
+	private static final int BITS 	= 6;
+	private static final int SLOTS 	= 1 << BITS;
+	private static final int MASK 	= SLOTS - 1;
+	private static final int LEVELS = 4;
+	private static final long RANGE = 1L << (BITS * LEVELS);
+	private static final int NIL 	= -1;
+	
+	private final int[] heads = new int[SLOTS * LEVELS];
+	private int[] next;
+	private int[] prev;
+	private int[] slot;
+	private int[] period;
+	private int[] generation;
+	private long[] expires;
+	private TimerListener[] listeners;
+	private int free = NIL;
+	private int capacity = 0;
+	private int pending = 0;
+	private long tick = 0;
+	
+	/**
+	 * Creates a new {@code TimerWheel} with room for 64 timers before its pool has to grow.
+	 * @since 1.1.0
+	 */
+	public TimerWheel()
+	{
+		this(64);
+	}
+	
+	/**
+	 * Creates a new {@code TimerWheel} with room for the given amount of timers before its pool has to grow.
+	 * @param capacity - the initial amount of pooled timer nodes
+	 * @since 1.1.0
+	 */
+	public TimerWheel(int capacity)
+	{
+		for (int i=0; i<heads.length; i++) heads[i] = NIL;
+		next 		= new int[0];
+		prev 		= new int[0];
+		slot 		= new int[0];
+		period 		= new int[0];
+		generation 	= new int[0];
+		expires 	= new long[0];
+		listeners 	= new TimerListener[0];
+		grow( (capacity<1)? 1: capacity );
+	}
+	
+	/**
+	 * Schedules a timer that expires once after the given amount of ticks. A delay of one tick expires on the next advance.
+	 * @param listener - the listener to invoke when the timer expires
+	 * @param delay - the amount of ticks until the timer expires, at least one
+	 * @return the handle of the scheduled timer
+	 * @since 1.1.0
+	 */
+	public long schedule(TimerListener listener, int delay)
+	{
+		return schedule(listener, delay, 0);
+	}
+	
+	/**
+	 * Schedules a timer that expires after the given amount of ticks, and from then on repeatedly after every period until it's cancelled.
+	 * @param listener - the listener to invoke when the timer expires
+	 * @param delay - the amount of ticks until the timer first expires, at least one
+	 * @param period - the amount of ticks between repetitions, or zero to expire only once
+	 * @return the handle of the scheduled timer
+	 * @since 1.1.0
+	 */
+	public long schedule(TimerListener listener, int delay, int period)
+	{
+		if (free == NIL) grow(capacity << 1);
+		int node = free;
+		free = next[node];
+		
+		listeners[node] = listener;
+		this.period[node] = (period<0)? 0: period;
+		expires[node] = tick + ((delay<1)? 1: delay);
+		link(node);
+		pending++;
+		return handle(node);
+	}
+	
+	/**
+	 * Cancels a pending timer. Does nothing if the timer has already expired or has been cancelled before.
+	 * @param timer - the handle of the timer to cancel
+	 * @return {@code true} if the timer was pending, {@code false} otherwise
+	 * @since 1.1.0
+	 */
+	public boolean cancel(long timer)
+	{
+		int node = find(timer);
+		if (node == NIL) return false;
+		unlink(node);
+		release(node);
+		return true;
+	}
+	
+	/**
+	 * Returns {@code true} if the given timer is still pending.
+	 * @param timer - the handle of the timer
+	 * @return {@code true} if the timer is still pending, {@code false} otherwise
+	 * @since 1.1.0
+	 */
+	public boolean isPending(long timer)
+	{
+		return find(timer) != NIL;
+	}
+	
+	/**
+	 * Returns the amount of ticks until the given timer expires, or -1 if the timer is no longer pending.
+	 * @param timer - the handle of the timer
+	 * @return the amount of ticks until the timer expires, or -1
+	 * @since 1.1.0
+	 */
+	public long getRemaining(long timer)
+	{
+		int node = find(timer);
+		return (node == NIL)? -1: expires[node] - tick;
+	}
+	
+	/**
+	 * Returns the amount of pending timers.
+	 * @return the amount of pending timers
+	 * @since 1.1.0
+	 */
+	public int getPending()
+	{
+		return pending;
+	}
+	
+	/**
+	 * Returns the amount of times this wheel has been advanced.
+	 * @return the current tick of this wheel
+	 * @since 1.1.0
+	 */
+	public long getTick()
+	{
+		return tick;
+	}
+	
+	/**
+	 * Advances the wheel by a single tick and invokes the listeners of all timers that expire on it. Timers that are scheduled by a listener with a delay of one tick expire on the next advance.
+	 * @since 1.1.0
+	 */
+	public void advance()
+	{
+		tick++;
+		int index = (int)(tick & MASK);
+		
+		/*
+		 * move the timers of the higher levels down when their slot comes up
+		 */
+		if (index == 0)
+		{
+			for (int level=1; level<LEVELS; level++)
+			{
+				int i = (int)((tick >>> (BITS * level)) & MASK);
+				cascade(level * SLOTS + i);
+				if (i != 0) break;
+			}
+		}
+		
+		int node;
+		while ((node = heads[index]) != NIL)
+		{
+			unlink(node);
+			long timer = handle(node);
+			TimerListener listener = listeners[node];
+			if (period[node] > 0)
+			{
+				expires[node] = tick + period[node];
+				link(node);
+			}
+			else
+			{
+				release(node);
+			}
+			listener.onTimer(timer);
+		}
+	}
+	
+	/**
+	 * Cancels all pending timers.
+	 * @since 1.1.0
+	 */
+	public void clear()
+	{
+		for (int i=0; i<heads.length; i++)
+		{
+			int node;
+			while ((node = heads[i]) != NIL)
+			{
+				unlink(node);
+				release(node);
+			}
+		}
+	}
+	
+	// ====================================
+	
+	private long handle(int node)
+	{
+		return ((long)generation[node] << 32) | node;
+	}
+	
+	private int find(long timer)
+	{
+		if (timer < 0) return NIL;
+		int node = (int)timer;
+		if (node >= capacity) return NIL;
+		if (generation[node] != (int)(timer >>> 32)) return NIL;
+		if (slot[node] == NIL) return NIL;
+		return node;
+	}
+	
+	private void cascade(int index)
+	{
+		int node = heads[index];
+		heads[index] = NIL;
+		while (node != NIL)
+		{
+			int n = next[node];
+			link(node);
+			node = n;
+		}
+	}
+	
+	/*
+	 * places the node in the slot of the lowest level that covers its delay
+	 */
+	private void link(int node)
+	{
+		long delta = expires[node] - tick;
+		long at = expires[node];
+		int level = 0;
+		if (delta >= RANGE)
+		{
+			at = tick + RANGE - 1;
+			level = LEVELS - 1;
+		}
+		else
+		{
+			while (delta >= (1L << (BITS * (level + 1)))) level++;
+		}
+		
+		int index = level * SLOTS + (int)((at >>> (BITS * level)) & MASK);
+		int head = heads[index];
+		next[node] = head;
+		prev[node] = NIL;
+		if (head != NIL) prev[head] = node;
+		heads[index] = node;
+		slot[node] = index;
+	}
+	
+	private void unlink(int node)
+	{
+		int n = next[node];
+		int p = prev[node];
+		if (p != NIL) next[p] = n;
+		else heads[slot[node]] = n;
+		if (n != NIL) prev[n] = p;
+		slot[node] = NIL;
+	}
+	
+	private void release(int node)
+	{
+		listeners[node] = null;
+		generation[node] = (generation[node] + 1) & Integer.MAX_VALUE;
+		next[node] = free;
+		free = node;
+		pending--;
+	}
+	
+	private void grow(int size)
+	{
+		int old = capacity;
+		next 		= copy(next, size);
+		prev 		= copy(prev, size);
+		slot 		= copy(slot, size);
+		period 		= copy(period, size);
+		generation 	= copy(generation, size);
+		long[] e = new long[size];
+		System.arraycopy(expires, 0, e, 0, old);
+		expires = e;
+		TimerListener[] l = new TimerListener[size];
+		System.arraycopy(listeners, 0, l, 0, old);
+		listeners = l;
+		
+		for (int i=size-1; i>=old; i--)
+		{
+			slot[i] = NIL;
+			next[i] = free;
+			free = i;
+		}
+		capacity = size;
+	}
+	
+	private int[] copy(int[] array, int size)
+	{
+		int[] a = new int[size];
+		System.arraycopy(array, 0, a, 0, array.length);
+		return a;
+	}
+}
@@ -0,0 +1,42 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.time;
+
+/**
+ * The time source of a game loop. Loops read the current time and idle between frames exclusively through their clock. By default, loops use the {@code SystemClock} which follows wall-clock time. A {@code VirtualClock} can be used instead to run a loop faster than real time, for example in offline simulations or tests.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ * @see SystemClock
+ * @see VirtualClock
+ */
+public interface GameClock
+{
+	/**
+	 * Returns the shared clock that follows {@code System.nanoTime()}.
+	 * @return the shared system clock
+	 * @since 1.1.0
+	 */
+	public static GameClock system()
+	{
+		return SystemClock.INSTANCE;
+	}
+	
+	/**
+	 * Returns the current time of this clock in nanoseconds. Like {@code System.nanoTime()}, this value is only meaningful when compared to other values of the same clock.
+	 * @return the current time in nanoseconds
+	 * @since 1.1.0
+	 */
+	public long nanoTime();
+	
+	/**
+	 * Idles the calling thread until this clock has reached the given deadline. 
+	 * @param deadline - the time stamp in nanoseconds to wait for
+	 * @param strategy - the {@code WaitStrategy} to idle with, if the clock needs to
+	 * @return the time stamp in nanoseconds at which the wait ended
+	 * @since 1.1.0
+	 */
+	public long waitUntil(long deadline, WaitStrategy strategy);
+}
@@ -0,0 +1,53 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.time;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Parks the thread until shortly before the deadline, and busy spins the remaining time. The spin margin absorbs the wake-up latency of the operating system, which keeps the frame time jitter close to a pure spin while the core is released for most of the wait.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+public class HybridWait extends WaitStrategy
+{
+	private final long margin;
+	
+	/**
+	 * Creates a new {@code HybridWait} that starts spinning one millisecond before the deadline.
+	 * @since 1.1.0
+	 */
+	public HybridWait()
+	{
+		this(1000_000);
+	}
+	
+	/**
+	 * Creates a new {@code HybridWait} that starts spinning the given amount of nanoseconds before the deadline.
+	 * @param margin - the amount of nanoseconds to spin before the deadline
+	 * @since 1.1.0
+	 */
+	public HybridWait(long margin)
+	{
+		this.margin = margin;
+	}
+	
+	@Override
+	protected void idle(long deadline)
+	{
+		long remaining;
+		while ((remaining = deadline - System.nanoTime() - margin) > 0)
+		{
+			LockSupport.parkNanos(remaining);
+			if (Thread.currentThread().isInterrupted()) return;
+		}
+		
+		while (deadline - System.nanoTime() > 0)
+		{
+			Thread.onSpinWait();
+		}
+	}
+}
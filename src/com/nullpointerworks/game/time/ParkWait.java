@@ -0,0 +1,27 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.time;
+
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Parks the thread until the deadline using {@code LockSupport.parkNanos(long)}. Idle CPU usage is close to zero and the overshoot is usually smaller than with {@code Thread.sleep(long)}, though still bound to the timer resolution of the operating system.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+public class ParkWait extends WaitStrategy
+{
+	@Override
+	protected void idle(long deadline)
+	{
+		long remaining;
+		while ((remaining = deadline - System.nanoTime()) > 0)
+		{
+			LockSupport.parkNanos(remaining);
+			if (Thread.currentThread().isInterrupted()) return;
+		}
+	}
+}
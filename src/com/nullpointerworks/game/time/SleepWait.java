@@ -0,0 +1,34 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.time;
+
+/**
+ * Sleeps the thread until the deadline. Idle CPU usage is close to zero, but the operating system scheduler may wake the thread up a millisecond or more too late.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+public class SleepWait extends WaitStrategy
+{
+	private static final long NANOS_PER_MILLI = 1_000_000; // 10^6
+	
+	@Override
+	protected void idle(long deadline)
+	{
+		long remaining;
+		while ((remaining = deadline - System.nanoTime()) > 0)
+		{
+			try 
+			{
+				Thread.sleep(remaining / NANOS_PER_MILLI, (int)(remaining % NANOS_PER_MILLI));
+			} 
+			catch (InterruptedException e) 
+			{
+				Thread.currentThread().interrupt();
+				return;
+			}
+		}
+	}
+}
@@ -0,0 +1,53 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.time;
+
+/**
+ * Busy spins for a limited amount of iterations and yields the thread afterwards until the deadline has passed. This gives the most accurate wake-up, but it keeps a core busy for the entire wait.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+public class SpinWait extends WaitStrategy
+{
+	private final int spins;
+	
+	/**
+	 * Creates a new {@code SpinWait} that spins for a thousand iterations before yielding.
+	 * @since 1.1.0
+	 */
+	public SpinWait()
+	{
+		this(1000);
+	}
+	
+	/**
+	 * Creates a new {@code SpinWait} that spins for the given amount of iterations before yielding.
+	 * @param spins - the amount of busy spins before yielding the thread
+	 * @since 1.1.0
+	 */
+	public SpinWait(int spins)
+	{
+		this.spins = spins;
+	}
+	
+	@Override
+	protected void idle(long deadline)
+	{
+		int count = spins;
+		while (deadline - System.nanoTime() > 0)
+		{
+			if (count > 0)
+			{
+				count--;
+				Thread.onSpinWait();
+			}
+			else
+			{
+				Thread.yield();
+			}
+		}
+	}
+}
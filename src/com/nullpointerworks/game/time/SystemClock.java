@@ -0,0 +1,31 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.time;
+
+/**
+ * A {@code GameClock} that follows {@code System.nanoTime()} and idles using the provided {@code WaitStrategy}.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ * @see GameClock#system()
+ */
+public final class SystemClock implements GameClock
+{
+	static final SystemClock INSTANCE = new SystemClock();
+	
+	private SystemClock() {}
+	
+	@Override
+	public long nanoTime()
+	{
+		return System.nanoTime();
+	}
+	
+	@Override
+	public long waitUntil(long deadline, WaitStrategy strategy)
+	{
+		return strategy.waitUntil(deadline);
+	}
+}
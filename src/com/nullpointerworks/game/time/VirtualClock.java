@@ -0,0 +1,74 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.time;
+
+/**
+ * A {@code GameClock} that only moves forward when it's told to. Waiting on this clock never blocks, it simply jumps the time to the requested deadline. A loop driven by a virtual clock will therefore run as fast as the CPU allows while it still observes the exact same time steps as it would in real time.
+ * <br><br>
+ * The clock may be read from any thread, but should only be moved forward by the thread that drives the loop.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+public class VirtualClock implements GameClock
+{
+	private volatile long time;
+	
+	/**
+	 * Creates a new {@code VirtualClock} starting at zero nanoseconds.
+	 * @since 1.1.0
+	 */
+	public VirtualClock()
+	{
+		this(0L);
+	}
+	
+	/**
+	 * Creates a new {@code VirtualClock} starting at the given time.
+	 * @param time - the starting time in nanoseconds
+	 * @since 1.1.0
+	 */
+	public VirtualClock(long time)
+	{
+		this.time = time;
+	}
+	
+	@Override
+	public long nanoTime()
+	{
+		return time;
+	}
+	
+	@Override
+	public long waitUntil(long deadline, WaitStrategy strategy)
+	{
+		long now = time;
+		if (deadline - now > 0)
+		{
+			time = now = deadline;
+		}
+		return now;
+	}
+	
+	/**
+	 * Moves the clock forward with the given amount of nanoseconds.
+	 * @param nanos - the amount of nanoseconds to move forward
+	 * @since 1.1.0
+	 */
+	public void advance(long nanos)
+	{
+		time = time + nanos;
+	}
+	
+	/**
+	 * Set the current time of this clock.
+	 * @param time - the new time in nanoseconds
+	 * @since 1.1.0
+	 */
+	public void setTime(long time)
+	{
+		this.time = time;
+	}
+}
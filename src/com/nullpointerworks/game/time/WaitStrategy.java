@@ -0,0 +1,146 @@
+/*
+ * This is free and unencumbered software released into the public domain.
+ * (http://unlicense.org/)
+ * Nullpointer Works (2021)
+ */
+package com.nullpointerworks.game.time;
+
+/**
+ * A {@code WaitStrategy} decides how a game loop spends the idle time between two frames. Each strategy trades CPU usage against wake-up accuracy. A busy spin wakes up right on time but occupies a full core, while sleeping frees the core but may overshoot the deadline by a millisecond or more depending on the operating system.
+ * <br><br>
+ * Every strategy measures how late it woke up compared to the requested deadline. This overshoot can be queried at any time to help decide which strategy suits the host machine best. The measurements are written by the loop thread and may be read from any other thread.
+ * @author Michiel Drost - Nullpointer Works
+ * @since 1.1.0
+ */
+public abstract class WaitStrategy
+{
+	/**
+	 * Returns a strategy that sleeps the thread until the deadline. Uses the least amount of CPU, but has the largest overshoot.
+	 * @return a new sleeping {@code WaitStrategy}
+	 * @since 1.1.0
+	 */
+	public static WaitStrategy sleep()
+	{
+		return new SleepWait();
+	}
+	
+	/**
+	 * Returns a strategy that parks the thread using {@code LockSupport.parkNanos(long)} until the deadline.
+	 * @return a new parking {@code WaitStrategy}
+	 * @since 1.1.0
+	 */
+	public static WaitStrategy park()
+	{
+		return new ParkWait();
+	}
+	
+	/**
+	 * Returns a strategy that spins for a short while and yields the thread afterwards until the deadline has passed.
+	 * @return a new spinning and yielding {@code WaitStrategy}
+	 * @since 1.1.0
+	 */
+	public static WaitStrategy spin()
+	{
+		return new SpinWait();
+	}
+	
+	/**
+	 * Returns a strategy that parks the thread until roughly one millisecond before the deadline, and spins for the remaining time.
+	 * @return a new hybrid {@code WaitStrategy}
+	 * @since 1.1.0
+	 */
+	public static WaitStrategy hybrid()
+	{
+		return new HybridWait();
+	}
+	
+	// ====================================
+	
+	private volatile long overshoot_last 	= 0;
+	private volatile long overshoot_max 	= 0;
+	private volatile long overshoot_total 	= 0;
+	private volatile long wakeups 			= 0;
+	
+	/**
+	 * Idles the calling thread until {@code System.nanoTime()} has reached the given deadline. When the deadline has already passed, this method returns immediately.
+	 * @param deadline - the time stamp in nanoseconds to wait for
+	 * @return the time stamp in nanoseconds at which the thread woke up
+	 * @since 1.1.0
+	 */
+	public final long waitUntil(long deadline)
+	{
+		long now = System.nanoTime();
+		if (deadline - now <= 0) return now;
+	
+		idle(deadline);
+		now = System.nanoTime();
+	
+		long overshoot = now - deadline;
+		overshoot = (overshoot<0)? 0: overshoot;
+		overshoot_last 	= overshoot;
+		overshoot_total = overshoot_total + overshoot;
+		wakeups 		= wakeups + 1;
+		if (overshoot > overshoot_max) overshoot_max = overshoot;
+		return now;
+	}
+	
+	/**
+	 * Returns the overshoot of the last wake-up in nanoseconds.
+	 * @return the overshoot of the last wake-up in nanoseconds
+	 * @since 1.1.0
+	 */
+	public final long getLastOvershoot()
+	{
+		return overshoot_last;
+	}
+	
+	/**
+	 * Returns the largest measured overshoot in nanoseconds.
+	 * @return the largest measured overshoot in nanoseconds
+	 * @since 1.1.0
+	 */
+	public final long getMaxOvershoot()
+	{
+		return overshoot_max;
+	}
+	
+	/**
+	 * Returns the average overshoot in nanoseconds of all wake-ups since the last reset.
+	 * @return the average overshoot in nanoseconds
+	 * @since 1.1.0
+	 */
+	public final double getAverageOvershoot()
+	{
+		long count = wakeups;
+		return (count == 0)? 0d: (double)overshoot_total / (double)count;
+	}
+	
+	/**
+	 * Returns the amount of times this strategy had to wait since the last reset.
+	 * @return the amount of measured wake-ups
+	 * @since 1.1.0
+	 */
+	public final long getWakeCount()
+	{
+		return wakeups;
+	}
+	
+	/**
+	 * Clears all overshoot measurements.
+	 * @since 1.1.0
+	 */
+	public final void resetOvershoot()
+	{
+		overshoot_last 	= 0;
+		overshoot_max 	= 0;
+		overshoot_total = 0;
+		wakeups 		= 0;
+	}
+	
+	/**
+	 * Idles the calling thread until the given deadline. Implementations should not return before the deadline has passed. Implementations that block should return right away when the thread is interrupted, and leave the interrupt flag set.
+	 * @param deadline - the time stamp in nanoseconds to wait for
+	 * @since 1.1.0
+	 */
+	protected abstract void idle(long deadline);
+}
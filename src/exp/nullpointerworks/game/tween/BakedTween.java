@@ -0,0 +1,91 @@
+package exp.nullpointerworks.game.tween;
+
+/**
+ * a tween sampled at a fixed rate, created with Tween.bake(float).<br>
+ * playback and seeking are a single table lookup with linear interpolation, no matter how many elements the original tween had.
+ */
+public class BakedTween
+{
+	private final float[] samples;
+	private final float duration;
+	private final float scale;
+	private float time 			= 0f;
+	private float currentValue 	= 0f;
+	private float previousValue = 0f;
+	private boolean repeat;
+	
+	BakedTween(float[] samples, float duration, boolean repeat)
+	{
+		this.samples = samples;
+		this.duration = duration;
+		this.scale = (duration>0f)? (samples.length - 1) / duration: 0f;
+		this.repeat = repeat;
+		reset();
+	}
+	
+	/**
+	 * reset the tween back to its start value
+	 */
+	public void reset()
+	{
+		seek(0f);
+	}
+	
+	/**
+	 * jump to the given time since the start of the tween
+	 */
+	public void seek(float time)
+	{
+		this.time = time;
+		previousValue = currentValue = getValueAt(time);
+	}
+	
+	/**
+	 * advance the tween by the given time and look up the new value
+	 */
+	public void update(float time)
+	{
+		this.time += time;
+		if (repeat && duration > 0f && this.time >= duration) this.time %= duration;
+		previousValue = currentValue;
+		currentValue = getValueAt(this.time);
+	}
+	
+	/**
+	 * returns the value of the tween at the given time, without changing its playback position
+	 */
+	public float getValueAt(float time)
+	{
+		if (repeat && duration > 0f && time >= duration) time %= duration;
+		float x = time * scale;
+		if (x <= 0f) return samples[0];
+		int last = samples.length - 1;
+		if (x >= last) return samples[last];
+		int i = (int)x;
+		float a = samples[i];
+		return a + (samples[i+1] - a) * (x - i);
+	}
+	
+	public float getValue() 
+	{
+		return currentValue;
+	}
+	
+	public float getValue(float interpolation) 
+	{
+		return previousValue + (currentValue - previousValue) * interpolation;
+	}
+	
+	/**
+	 * returns true if the tween is not repeating and has played to the end
+	 */
+	public boolean isComplete()
+	{
+		return !repeat && time >= duration;
+	}
+	
+	public float getDuration() {return duration;}
+	public float getTime() {return time;}
+	public boolean isRepeat() {return repeat;}
+	public void setRepeat(boolean repeat) {this.repeat = repeat;}
+}
@@ -0,0 +1,221 @@
+package exp.nullpointerworks.game.tween;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * an easing curve compiled into a table of 1024 samples. evaluating the curve is a table lookup and a linear interpolation.<br>
+ * the curves below and cubic bezier curves are cached, so every tween using the same curve shares the same table.<br>
+ * the in-out curves are made of the in curve for the first half, and the mirrored in curve for the second.<br>
+ * example: myTween.add( Tween.ease(10f, 1f, Easing.BACK_OUT) );
+ */
+public final class Easing
+{
+	private static final int SEGMENTS = 1024;
+	private static final Map<BezierKey, Easing> beziers = new HashMap<BezierKey, Easing>();
+	
+	public static final Easing LINEAR 			= compile(p -> p);
+	
+	public static final Easing QUAD_IN 			= compile(Easing::quad);
+	public static final Easing QUAD_OUT 		= compile(p -> 1f - quad(1f - p));
+	public static final Easing QUAD_IN_OUT 		= compile(p -> inOut(Easing::quad, p));
+	
+	public static final Easing CUBIC_IN 		= compile(Easing::cubic);
+	public static final Easing CUBIC_OUT 		= compile(p -> 1f - cubic(1f - p));
+	public static final Easing CUBIC_IN_OUT 	= compile(p -> inOut(Easing::cubic, p));
+	
+	public static final Easing QUART_IN 		= compile(Easing::quart);
+	public static final Easing QUART_OUT 		= compile(p -> 1f - quart(1f - p));
+	public static final Easing QUART_IN_OUT 	= compile(p -> inOut(Easing::quart, p));
+	
+	public static final Easing EXPO_IN 			= compile(Easing::expo);
+	public static final Easing EXPO_OUT 		= compile(p -> 1f - expo(1f - p));
+	public static final Easing EXPO_IN_OUT 		= compile(p -> inOut(Easing::expo, p));
+	
+	public static final Easing BACK_IN 			= compile(Easing::back);
+	public static final Easing BACK_OUT 		= compile(p -> 1f - back(1f - p));
+	public static final Easing BACK_IN_OUT 		= compile(p -> inOut(Easing::back, p));
+	
+	public static final Easing ELASTIC_IN 		= compile(Easing::elastic);
+	public static final Easing ELASTIC_OUT 		= compile(p -> 1f - elastic(1f - p));
+	public static final Easing ELASTIC_IN_OUT 	= compile(p -> inOut(Easing::elastic, p));
+	
+	public static final Easing BOUNCE_IN 		= compile(p -> 1f - bounce(1f - p));
+	public static final Easing BOUNCE_OUT 		= compile(Easing::bounce);
+	public static final Easing BOUNCE_IN_OUT 	= compile(p -> inOut(q -> 1f - bounce(1f - q), p));
+	
+	/**
+	 * sample the given function into a new easing curve. the result is not cached, so keep it around to share it between tweens.
+	 */
+	public static Easing compile(EasingFunction function)
+	{
+		float[] table = new float[SEGMENTS + 2];
+		for (int i=0; i<=SEGMENTS; i++)
+		{
+			table[i] = function.ease( (float)i / SEGMENTS );
+		}
+		table[SEGMENTS + 1] = table[SEGMENTS];
+		return new Easing(table);
+	}
+	
+	/**
+	 * returns the easing curve of a CSS cubic-bezier(x1, y1, x2, y2) timing function. the curve is compiled once, and cached for the same control points.<br>
+	 * x1 and x2 have to be between 0 and 1.
+	 */
+	public static Easing cubicBezier(float x1, float y1, float x2, float y2)
+	{
+		if (x1 < 0f || x1 > 1f || x2 < 0f || x2 > 1f)
+		{
+			throw new IllegalArgumentException("Bezier control points must have an x between 0 and 1");
+		}
+		
+		BezierKey key = new BezierKey(x1, y1, x2, y2);
+		synchronized (beziers)
+		{
+			Easing e = beziers.get(key);
+			if (e == null)
+			{
+				e = compileBezier(x1, y1, x2, y2);
+				beziers.put(key, e);
+			}
+			return e;
+		}
+	}
+	
+	// ====================================
+	
+	private final float[] table;
+	
+	private Easing(float[] table)
+	{
+		this.table = table;
+	}
+	
+	/**
+	 * returns the curve value at the given progress. progress is clamped between 0 and 1.
+	 */
+	public float apply(float p)
+	{
+		if (p <= 0f) return table[0];
+		if (p >= 1f) return table[SEGMENTS];
+		float x = p * SEGMENTS;
+		int i = (int)x;
+		float a = table[i];
+		return a + (table[i+1] - a) * (x - i);
+	}
+	
+	// ====================================
+	
+	private static float quad(float p) {return p * p;}
+	private static float cubic(float p) {return p * p * p;}
+	private static float quart(float p) {return p * p * p * p;}
+	
+	private static float expo(float p)
+	{
+		return (p <= 0f)? 0f: (float)Math.pow(2.0, 10.0 * p - 10.0);
+	}
+	
+	private static float back(float p)
+	{
+		final float c1 = 1.70158f;
+		return (c1 + 1f) * p * p * p - c1 * p * p;
+	}
+	
+	private static float elastic(float p)
+	{
+		if (p <= 0f) return 0f;
+		if (p >= 1f) return 1f;
+		final double c4 = (2.0 * Math.PI) / 3.0;
+		return (float)(-Math.pow(2.0, 10.0 * p - 10.0) * Math.sin((10.0 * p - 10.75) * c4));
+	}
+	
+	private static float bounce(float p)
+	{
+		final float n1 = 7.5625f;
+		final float d1 = 2.75f;
+		if (p < 1f / d1) return n1 * p * p;
+		if (p < 2f / d1) { p -= 1.5f / d1; return n1 * p * p + 0.75f; }
+		if (p < 2.5f / d1) { p -= 2.25f / d1; return n1 * p * p + 0.9375f; }
+		p -= 2.625f / d1;
+		return n1 * p * p + 0.984375f;
+	}
+	
+	private static float inOut(EasingFunction in, float p)
+	{
+		if (p < 0.5f) return in.ease(p * 2f) * 0.5f;
+		return 1f - in.ease(2f - p * 2f) * 0.5f;
+	}
+	
+	/*
+	 * solves x(t) = x for every sample with newton's method, falling back to bisection where the slope is too flat
+	 */
+	private static Easing compileBezier(double x1, double y1, double x2, double y2)
+	{
+		double cx = 3.0 * x1;
+		double bx = 3.0 * (x2 - x1) - cx;
+		double ax = 1.0 - cx - bx;
+		double cy = 3.0 * y1;
+		double by = 3.0 * (y2 - y1) - cy;
+		double ay = 1.0 - cy - by;
+		
+		float[] table = new float[SEGMENTS + 2];
+		for (int i=0; i<=SEGMENTS; i++)
+		{
+			double x = (double)i / SEGMENTS;
+			double t = x;
+			boolean solved = false;
+			for (int n=0; n<8; n++)
+			{
+				double err = ((ax * t + bx) * t + cx) * t - x;
+				if (Math.abs(err) < 1e-9) { solved = true; break; }
+				double slope = (3.0 * ax * t + 2.0 * bx) * t + cx;
+				if (Math.abs(slope) < 1e-6) break;
+				t -= err / slope;
+			}
+			
+			if (!solved || t < 0.0 || t > 1.0)
+			{
+				double lo = 0.0;
+				double hi = 1.0;
+				t = x;
+				for (int n=0; n<64; n++)
+				{
+					double err = ((ax * t + bx) * t + cx) * t - x;
+					if (Math.abs(err) < 1e-9) break;
+					if (err > 0.0) hi = t; else lo = t;
+					t = (lo + hi) * 0.5;
+				}
+			}
+			table[i] = (float)(((ay * t + by) * t + cy) * t);
+		}
+		table[SEGMENTS + 1] = table[SEGMENTS];
+		return new Easing(table);
+	}
+	
+	private static final class BezierKey
+	{
+		private final int x1, y1, x2, y2;
+		
+		BezierKey(float x1, float y1, float x2, float y2)
+		{
+			this.x1 = Float.floatToIntBits(x1);
+			this.y1 = Float.floatToIntBits(y1);
+			this.x2 = Float.floatToIntBits(x2);
+			this.y2 = Float.floatToIntBits(y2);
+		}
+		
+		@Override
+		public boolean equals(Object o)
+		{
+			if (!(o instanceof BezierKey)) return false;
+			BezierKey k = (BezierKey)o;
+			return x1 == k.x1 && y1 == k.y1 && x2 == k.x2 && y2 == k.y2;
+		}
+		
+		@Override
+		public int hashCode()
+		{
+			return ((x1 * 31 + y1) * 31 + x2) * 31 + y2;
+		}
+	}
+}
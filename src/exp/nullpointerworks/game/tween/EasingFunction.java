@@ -0,0 +1,10 @@
+package exp.nullpointerworks.game.tween;
+
+/**
+ * maps the progress of a tween step, between 0 and 1, onto a curve. starts at 0 and ends at 1.<br>
+ * use Easing.compile(EasingFunction) to turn it into a table that tweens can use.
+ */
+public interface EasingFunction
+{
+	float ease(float p);
+}
@@ -0,0 +1,102 @@
+package exp.nullpointerworks.game.tween;
+
+/**
+ * sine and cosine from a precomputed quarter-wave lookup table with linear interpolation.<br>
+ * the table holds 1024 segments between 0 and pi/2, the other quadrants are mirrored from it. the result differs from Math.sin and Math.cos by at most MAX_ERROR for angles between -2pi and 2pi. larger angles lose precision to float rounding before the lookup.<br>
+ * tweens that use sine or cosine curves pick exact or fast math per tween with one of the modes below. tweens in DEFAULT mode follow the global setting.
+ */
+public final class FastTrig
+{
+	/**
+	 * follow the global setting, see setEnabled(boolean)
+	 */
+	public static final int DEFAULT = 0;
+	
+	/**
+	 * always use Math.sin and Math.cos
+	 */
+	public static final int EXACT 	= 1;
+	
+	/**
+	 * always use the lookup table
+	 */
+	public static final int FAST 	= 2;
+	
+	/**
+	 * the maximum absolute difference with Math.sin and Math.cos, for angles between -2pi and 2pi
+	 */
+	public static final float MAX_ERROR = 6e-7f;
+	
+	private static final int SEGMENTS = 1024;
+	private static final float TWO_OVER_PI = (float)(2.0 / Math.PI);
+	private static final float[] TABLE = new float[SEGMENTS + 2];
+	
+	static
+	{
+		for (int i=0; i<TABLE.length; i++)
+		{
+			TABLE[i] = (float)Math.sin( (Math.PI * 0.5) * i / SEGMENTS );
+		}
+	}
+	
+	private static volatile boolean enabled = false;
+	
+	private FastTrig() {}
+	
+	/**
+	 * enable or disable fast math for all tweens in DEFAULT mode. disabled by default.
+	 */
+	public static void setEnabled(boolean fast) {enabled = fast;}
+	public static boolean isEnabled() {return enabled;}
+	
+	/**
+	 * returns true if a tween in the given mode should use the lookup table
+	 */
+	public static boolean isFast(int mode)
+	{
+		if (mode == DEFAULT) return enabled;
+		return mode == FAST;
+	}
+	
+	/**
+	 * the sine of an angle in radians
+	 */
+	public static float sin(float radians)
+	{
+		return fold(radians * TWO_OVER_PI, 0);
+	}
+	
+	/**
+	 * the cosine of an angle in radians
+	 */
+	public static float cos(float radians)
+	{
+		return fold(radians * TWO_OVER_PI, 1);
+	}
+	
+	/**
+	 * the sine of a quarter turn fraction, equal to sin(p * pi/2) for p between 0 and 1. skips the quadrant folding. p is clamped to [0,1], so use sin(float) for other angles.
+	 */
+	public static float quarterSin(float p)
+	{
+		if (p <= 0f) return 0f;
+		if (p >= 1f) return 1f;
+		float x = p * SEGMENTS;
+		int i = (int)x;
+		float a = TABLE[i];
+		return a + (TABLE[i+1] - a) * (x - i);
+	}
+	
+	// ====================================
+	
+	private static float fold(float quarters, int shift)
+	{
+		float k = (float)Math.floor(quarters);
+		float f = quarters - k;
+		int quadrant = ((int)k + shift) & 3;
+		if (quadrant == 0) return quarterSin(f);
+		if (quadrant == 1) return quarterSin(1f - f);
+		if (quadrant == 2) return -quarterSin(f);
+		return -quarterSin(1f - f);
+	}
+}
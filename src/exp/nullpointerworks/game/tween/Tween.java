@@ -5,6 +5,7 @@ import java.util.List;
 
 import exp.nullpointerworks.game.tween.abstracts.TweenElement;
 import exp.nullpointerworks.game.tween.type.CosineTween;
+import exp.nullpointerworks.game.tween.type.EaseTween;
 import exp.nullpointerworks.game.tween.type.MoveTween;
 import exp.nullpointerworks.game.tween.type.PauseTween;
 import exp.nullpointerworks.game.tween.type.ScaleTween;
@@ -53,6 +54,14 @@ public class Tween
 		return new CosineTween(value,time);
 	}
 	
+	/**
+	 * move to the given value along an easing curve in a certain amount of time
+	 */
+	public static TweenElement ease(float value, float time, Easing easing) 
+	{
+		return new EaseTween(value,time,easing);
+	}
+	
 	/**
 	 * hard set a value in the tween at this point.
 	 */
@@ -63,14 +72,23 @@ public class Tween
 	
 	// ====================================
 	
-	private List<TweenElement> tweens;
+	List<TweenElement> tweens;
+	private final ValueTween startTween;
 	private TweenElement currentTween = null;
 	private int currentElement 	= 0;
-	private final float startValue;
+	private float startValue;
 	private float currentValue 	= 0f;
 	private float previousValue = 0f;
 	private boolean repeat 		= false;
 	private boolean enable 		= true;
+	private boolean complete 	= false;
+	int managerIndex 			= -1;
+	
+	// timeline, indexed by element. rebuilt when seeking after elements were added or cleared
+	private float[] elementStart = new float[4];
+	private float[] elementFrom = new float[4];
+	private float duration 		= 0f;
+	private boolean timeline 	= false;
 	
 	public Tween()
 	{
@@ -81,6 +99,7 @@ public class Tween
 	{
 		this.startValue = startValue;
 		tweens = new ArrayList<TweenElement>();
+		startTween = new ValueTween(startValue);
 		clear();
 		reset();
 	}
@@ -93,6 +112,7 @@ public class Tween
 	{
 		tweens.add(element);
 		currentTween = tweens.get(0);
+		timeline = false;
 	}
 	
 	/**
@@ -100,6 +120,7 @@ public class Tween
 	 */
 	public void reset() 
 	{
+		complete = false;
 		setValue(startValue);
 		currentElement 	= 0;
 		currentTween 	= tweens.get(0);
@@ -114,10 +135,23 @@ public class Tween
 		tweens.clear();
 		repeat 			= false;
 		enable 			= true;
+		complete 		= false;
 		currentElement 	= 0;
 		setValue(startValue);
-		currentTween 	= new ValueTween(startValue);
+		startTween.set(startValue);
+		currentTween 	= startTween;
 		tweens.add(currentTween);
+		timeline = false;
+	}
+	
+	/**
+	 * delete all elements from this tween, and start over from the given value.<br>
+	 * reuses this tween and its element list without allocating.
+	 */
+	public void clear(float startValue)
+	{
+		this.startValue = startValue;
+		clear();
 	}
 	
 	public void setValue(float f) 
@@ -135,7 +169,7 @@ public class Tween
 	
 	public float getValue(float interpolation) 
 	{
-		return previousValue - (previousValue + currentValue)*interpolation;
+		return previousValue + (currentValue - previousValue)*interpolation;
 	}
 	
 	public boolean isRepeat() {return repeat;}
@@ -143,6 +177,57 @@ public class Tween
 	public void setRepeat(boolean repeat) {this.repeat = repeat;}
 	public void setEnable(boolean enable) {this.enable = enable;}
 	
+	/**
+	 * returns true if the tween has run through all of its elements and is not repeating
+	 */
+	public boolean isComplete() {return complete;}
+	
+	/**
+	 * returns the total time of all elements in this tween
+	 */
+	public float getDuration()
+	{
+		if (timeline) return duration;
+		float d = 0f;
+		for (int i=0, l=tweens.size(); i<l; i++)
+		{
+			d += tweens.get(i).getDuration();
+		}
+		return d;
+	}
+	
+	/**
+	 * jump to the given time since the start of the tween, and continue updating from there.<br>
+	 * the element at that time is found with a binary search over the start times of all elements. a repeating tween wraps the time around, otherwise times past the end hold the end value.<br>
+	 * seeking uses the exact durations of the elements, while update(float) moves on to the next element on the update after one completes.
+	 */
+	public void seek(float time)
+	{
+		if (!timeline) buildTimeline();
+		if (repeat && duration > 0f && time >= duration) time %= duration;
+		enable = true;
+		complete = false;
+		seekTo(time);
+	}
+	
+	/**
+	 * sample this tween at a fixed rate, in samples per second, for playback in constant time.<br>
+	 * the samples are spread evenly from the start to the end of the tween, so the actual rate may be slightly higher. baking resets this tween.
+	 */
+	public BakedTween bake(float rate)
+	{
+		if (!timeline) buildTimeline();
+		int count = (int)Math.ceil(duration * rate) + 1;
+		float[] samples = new float[count];
+		for (int i=0; i<count; i++)
+		{
+			seekTo( (count>1)? duration * i / (count - 1): 0f );
+			samples[i] = currentValue;
+		}
+		reset();
+		return new BakedTween(samples, duration, repeat);
+	}
+	
 	/**
 	 * update the current tween and calculate new values, switch to the new tween<br>
 	 */
@@ -159,6 +244,7 @@ public class Tween
 			if (currentElement < tweens.size())
 			{
 				currentTween = tweens.get(currentElement);
+				currentTween.reset(); // may have run before a backward seek
 				currentTween.setValue(currentValue);
 				currentTween.update(time);
 			}
@@ -172,6 +258,7 @@ public class Tween
 				else
 				{
 					setEnable(false);
+					complete = true;
 				}
 			}
 		}
@@ -182,4 +269,65 @@ public class Tween
 		}
 	}
 	
+	// ====================================
+	
+	/*
+	 * sets the element at the given time as the current one, and evaluates it
+	 */
+	private void seekTo(float time)
+	{
+		int n = tweens.size();
+		if (time < 0f) time = 0f;
+		if (time > duration) time = duration;
+		
+		// last element that starts at or before the time
+		int lo = 0;
+		int hi = n - 1;
+		while (lo < hi)
+		{
+			int mid = (lo + hi + 1) >>> 1;
+			if (elementStart[mid] <= time) lo = mid;
+			else hi = mid - 1;
+		}
+		
+		TweenElement e = tweens.get(lo);
+		e.reset();
+		e.setValue(elementFrom[lo]);
+		e.update(time - elementStart[lo]);
+		currentElement 	= lo;
+		currentTween 	= e;
+		setValue(e.getValue());
+	}
+	
+	/*
+	 * sums up the durations of the elements, and runs each one to the end to find the value the next one starts at
+	 */
+	private void buildTimeline()
+	{
+		int n = tweens.size();
+		if (elementStart.length < n)
+		{
+			int size = Integer.highestOneBit(n) << 1;
+			elementStart = new float[size];
+			elementFrom = new float[size];
+		}
+		
+		float time = 0f;
+		float value = startValue;
+		for (int i=0; i<n; i++)
+		{
+			TweenElement e = tweens.get(i);
+			float d = e.getDuration();
+			elementStart[i] = time;
+			elementFrom[i] = value;
+			e.reset();
+			e.setValue(value);
+			e.update(d);
+			value = e.getValue();
+			e.reset();
+			time += d;
+		}
+		duration = time;
+		timeline = true;
+	}
 }
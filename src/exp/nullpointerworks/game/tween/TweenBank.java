@@ -0,0 +1,566 @@
+package exp.nullpointerworks.game.tween;
+
+/**
+ * stores the state of many tween sequences in parallel float arrays and advances all of them in a single pass.<br>
+ * every sequence is a track of steps, created with the same steps as a Tween. all tracks share the clock of the bank.<br>
+ * the slots of the running tracks are kept grouped by curve type, so each curve is evaluated in one tight loop over contiguous arrays.<br>
+ * example: int t = bank.track(0f); bank.move(t, 10f, 1f); bank.sine(t, 0f, 0.5f);
+ */
+public class TweenBank
+{
+	private static final byte MOVE 		= 0;
+	private static final byte SCALE 	= 1;
+	private static final byte PAUSE 	= 2;
+	private static final byte SINE 		= 3;
+	private static final byte COSINE 	= 4;
+	private static final byte VALUE 	= 5;
+	private static final byte EASE 		= 6;
+	
+	/*
+	 * slot groups, in order of their position in the slot arrays
+	 */
+	private static final int LINEAR = 0;
+	private static final int EASE_OUT = 1;
+	private static final int EASE_IN = 2;
+	private static final int EASED = 3;
+	private static final int IDLE = 4;
+	private static final int GROUPS = 5;
+	
+	private static final float HALF_PI = (float)(Math.PI * 0.5);
+	
+	// slot data, indexed by slot
+	private float[] elapsed;
+	private float[] duration;
+	private float[] invDuration;
+	private float[] from;
+	private float[] delta;
+	private float[] value;
+	private float[] previous;
+	private Easing[] easing;
+	private int[] slotTrack;
+	
+	// track data, indexed by track
+	private int[] trackSlot;
+	private int[] trackGroup;
+	private int[] firstStep;
+	private int[] lastStep;
+	private int[] currentStep;
+	private float[] startValue;
+	private boolean[] repeat;
+	private boolean[] enable;
+	private boolean[] complete;
+	private int tracks = 0;
+	
+	// step data, indexed by step
+	private byte[] stepType;
+	private float[] stepValue;
+	private float[] stepTime;
+	private Easing[] stepEasing;
+	private int[] nextStep;
+	private int steps = 0;
+	
+	private final int[] bounds = new int[GROUPS + 1];
+	private int[] done;
+	private int trigMode = FastTrig.DEFAULT;
+	
+	public TweenBank()
+	{
+		this(64);
+	}
+	
+	/**
+	 * create a bank with room for the given amount of tracks before it has to grow
+	 */
+	public TweenBank(int capacity)
+	{
+		capacity = (capacity<1)? 1: capacity;
+		elapsed 	= new float[capacity];
+		duration 	= new float[capacity];
+		invDuration = new float[capacity];
+		from 		= new float[capacity];
+		delta 		= new float[capacity];
+		value 		= new float[capacity];
+		previous 	= new float[capacity];
+		easing 		= new Easing[capacity];
+		slotTrack 	= new int[capacity];
+		trackSlot 	= new int[capacity];
+		trackGroup 	= new int[capacity];
+		firstStep 	= new int[capacity];
+		lastStep 	= new int[capacity];
+		currentStep = new int[capacity];
+		startValue 	= new float[capacity];
+		repeat 		= new boolean[capacity];
+		enable 		= new boolean[capacity];
+		complete 	= new boolean[capacity];
+		done 		= new int[capacity];
+		
+		stepType 	= new byte[capacity];
+		stepValue 	= new float[capacity];
+		stepTime 	= new float[capacity];
+		stepEasing 	= new Easing[capacity];
+		nextStep 	= new int[capacity];
+	}
+	
+	/**
+	 * create a new track that starts at the given value, and return its index.
+	 */
+	public int track(float start)
+	{
+		if (tracks == trackSlot.length) growTracks(tracks << 1);
+		int t = tracks++;
+		int s = t; // the new slot is the last, which is part of the idle group
+		bounds[GROUPS] = tracks;
+		slotTrack[s] 	= t;
+		trackSlot[t] 	= s;
+		trackGroup[t] 	= IDLE;
+		firstStep[t] 	= -1;
+		lastStep[t] 	= -1;
+		currentStep[t] 	= -1;
+		startValue[t] 	= start;
+		repeat[t] 		= false;
+		enable[t] 		= true;
+		complete[t] 	= false;
+		elapsed[s] 		= 0f;
+		duration[s] 	= 0f;
+		invDuration[s] 	= 0f;
+		from[s] 		= start;
+		delta[s] 		= 0f;
+		value[s] 		= start;
+		previous[s] 	= start;
+		return t;
+	}
+	
+	/**
+	 * scale the current value of the track with a factor within a certain amount of time
+	 */
+	public void scale(int track, float factor, float time)
+	{
+		step(track, SCALE, factor, time);
+	}
+	
+	/**
+	 * move the current value of the track to the given value in a certain amount of time
+	 */
+	public void move(int track, float value, float time)
+	{
+		step(track, MOVE, value, time);
+	}
+	
+	/**
+	 * pause value modification of the track for a given time
+	 */
+	public void pause(int track, float time)
+	{
+		step(track, PAUSE, 0f, time);
+	}
+	
+	/**
+	 * move the track to the given value using a sine function. starts strong, ends slow
+	 */
+	public void sine(int track, float value, float time)
+	{
+		step(track, SINE, value, time);
+	}
+	
+	/**
+	 * move the track to the given value using the cosine function. starts slow, ends strong
+	 */
+	public void cosine(int track, float value, float time)
+	{
+		step(track, COSINE, value, time);
+	}
+	
+	/**
+	 * move the track to the given value along an easing curve in a certain amount of time
+	 */
+	public void ease(int track, float value, float time, Easing easing)
+	{
+		step(track, EASE, value, time, easing);
+	}
+	
+	/**
+	 * hard set a value in the track at this point.
+	 */
+	public void value(int track, float value)
+	{
+		step(track, VALUE, value, 0f);
+	}
+	
+	/**
+	 * reset the track back to its start value and first step
+	 */
+	public void reset(int track)
+	{
+		complete[track] = false;
+		currentStep[track] = firstStep[track];
+		int s = trackSlot[track];
+		value[s] = previous[s] = startValue[track];
+		if (currentStep[track] < 0) return;
+		activate(track, startValue[track], 0f);
+	}
+	
+	public boolean isRepeat(int track) {return repeat[track];}
+	public boolean isEnable(int track) {return enable[track];}
+	public void setRepeat(int track, boolean repeat) {this.repeat[track] = repeat;}
+	
+	public void setEnable(int track, boolean enable)
+	{
+		this.enable[track] = enable;
+		if (!enable)
+		{
+			moveTo(track, IDLE);
+		}
+		else if (!complete[track] && currentStep[track] >= 0)
+		{
+			moveTo(track, curveOf(stepType[currentStep[track]]));
+		}
+	}
+	
+	/**
+	 * returns true if the track has run through all of its steps and is not repeating
+	 */
+	public boolean isComplete(int track)
+	{
+		return complete[track];
+	}
+	
+	/**
+	 * return the currently available value from the track.
+	 */
+	public float getValue(int track)
+	{
+		return value[trackSlot[track]];
+	}
+	
+	/**
+	 * return the value of the track between the previous and the current update
+	 */
+	public float getValue(int track, float interpolation)
+	{
+		int s = trackSlot[track];
+		return previous[s] + (value[s] - previous[s]) * interpolation;
+	}
+	
+	/**
+	 * use exact or fast math for the sine and cosine steps of all tracks in this bank. one of FastTrig.DEFAULT, FastTrig.EXACT or FastTrig.FAST
+	 */
+	public void setTrigMode(int mode) {trigMode = mode;}
+	public int getTrigMode() {return trigMode;}
+	
+	/**
+	 * returns the amount of tracks in this bank
+	 */
+	public int getTrackCount()
+	{
+		return tracks;
+	}
+	
+	/**
+	 * delete all tracks and steps from this bank.
+	 */
+	public void clear()
+	{
+		for (int i=0; i<tracks; i++) easing[i] = null;
+		for (int i=0; i<steps; i++) stepEasing[i] = null;
+		tracks = 0;
+		steps = 0;
+		for (int g=0; g<=GROUPS; g++) bounds[g] = 0;
+	}
+	
+	/**
+	 * advance all enabled tracks by the given time, and calculate their new values
+	 */
+	public void update(float time)
+	{
+		int end = bounds[IDLE];
+		System.arraycopy(value, 0, previous, 0, end);
+		
+		/*
+		 * evaluate every curve over its own range of slots
+		 */
+		for (int s=bounds[LINEAR], l=bounds[LINEAR+1]; s<l; s++)
+		{
+			float e = elapsed[s] + time;
+			float p = e * invDuration[s];
+			p = (p>1f)? 1f: p;
+			elapsed[s] = e;
+			value[s] = from[s] + delta[s] * p;
+		}
+		
+		if (FastTrig.isFast(trigMode))
+		{
+			for (int s=bounds[EASE_OUT], l=bounds[EASE_OUT+1]; s<l; s++)
+			{
+				float e = elapsed[s] + time;
+				float p = e * invDuration[s];
+				p = (p>1f)? 1f: p;
+				elapsed[s] = e;
+				value[s] = from[s] + delta[s] * FastTrig.quarterSin(p);
+			}
+			
+			for (int s=bounds[EASE_IN], l=bounds[EASE_IN+1]; s<l; s++)
+			{
+				float e = elapsed[s] + time;
+				float p = e * invDuration[s];
+				p = (p>1f)? 1f: p;
+				elapsed[s] = e;
+				value[s] = from[s] + delta[s] * (1f - FastTrig.quarterSin(1f - p));
+			}
+		}
+		else
+		{
+			for (int s=bounds[EASE_OUT], l=bounds[EASE_OUT+1]; s<l; s++)
+			{
+				float e = elapsed[s] + time;
+				float p = e * invDuration[s];
+				p = (p>1f)? 1f: p;
+				elapsed[s] = e;
+				value[s] = from[s] + delta[s] * (float)Math.sin(p * HALF_PI);
+			}
+			
+			for (int s=bounds[EASE_IN], l=bounds[EASE_IN+1]; s<l; s++)
+			{
+				float e = elapsed[s] + time;
+				float p = e * invDuration[s];
+				p = (p>1f)? 1f: p;
+				elapsed[s] = e;
+				value[s] = from[s] + delta[s] * (1f - (float)Math.cos(p * HALF_PI));
+			}
+		}
+		
+		for (int s=bounds[EASED], l=bounds[EASED+1]; s<l; s++)
+		{
+			float e = elapsed[s] + time;
+			float p = e * invDuration[s];
+			elapsed[s] = e;
+			value[s] = from[s] + delta[s] * easing[s].apply(p);
+		}
+		
+		/*
+		 * collect the tracks that completed their step, then move them on.
+		 * moving a track may change the order of the slots.
+		 */
+		int count = 0;
+		for (int s=0; s<end; s++)
+		{
+			if (elapsed[s] >= duration[s]) done[count++] = slotTrack[s];
+		}
+		for (int i=0; i<count; i++)
+		{
+			settle(done[i]);
+		}
+	}
+	
+	// ====================================
+	
+	private void step(int track, byte type, float val, float time)
+	{
+		step(track, type, val, time, null);
+	}
+	
+	private void step(int track, byte type, float val, float time, Easing curve)
+	{
+		if (steps == stepType.length) growSteps(steps << 1);
+		int st = steps++;
+		stepType[st] 	= type;
+		stepValue[st] 	= val;
+		stepTime[st] 	= (time<0f)? 0f: time;
+		stepEasing[st] 	= curve;
+		nextStep[st] 	= -1;
+		
+		if (firstStep[track] < 0)
+		{
+			firstStep[track] = lastStep[track] = st;
+			reset(track);
+		}
+		else
+		{
+			nextStep[lastStep[track]] = st;
+			lastStep[track] = st;
+		}
+	}
+	
+	/*
+	 * continues with the next steps of the track while its current step is complete
+	 */
+	private void settle(int track)
+	{
+		int guard = steps + 1;
+		int s = trackSlot[track];
+		while (trackGroup[track] != IDLE && elapsed[s] >= duration[s] && guard-- > 0)
+		{
+			float end = from[s] + delta[s];
+			float left = elapsed[s] - duration[s];
+			int next = nextStep[currentStep[track]];
+			if (next < 0)
+			{
+				if (!repeat[track])
+				{
+					value[s] = end;
+					complete[track] = true;
+					moveTo(track, IDLE);
+					return;
+				}
+				next = firstStep[track];
+				end = startValue[track];
+			}
+			currentStep[track] = next;
+			activate(track, end, left);
+			s = trackSlot[track];
+		}
+	}
+	
+	/*
+	 * start the current step of the track at the given value, with some time already elapsed
+	 */
+	private void activate(int track, float start, float left)
+	{
+		int st = currentStep[track];
+		byte type = stepType[st];
+		float val = stepValue[st];
+		float time = stepTime[st];
+		
+		float d;
+		if (type == MOVE || type == SINE || type == COSINE || type == EASE) d = val - start;
+		else if (type == SCALE) d = start * val - start;
+		else if (type == VALUE) { start = val; d = 0f; }
+		else d = 0f;
+		
+		if (enable[track]) moveTo(track, curveOf(type));
+		int s = trackSlot[track];
+		from[s] 		= start;
+		delta[s] 		= d;
+		duration[s] 	= time;
+		invDuration[s] 	= (time>0f)? 1f / time: 0f;
+		elapsed[s] 		= left;
+		easing[s] 		= stepEasing[st];
+		
+		float p = (time>0f)? left / time: 1f;
+		p = (p>1f)? 1f: p;
+		int curve = curveOf(type);
+		boolean fast = FastTrig.isFast(trigMode);
+		if (curve == EASE_OUT) p = fast? FastTrig.quarterSin(p): (float)Math.sin(p * HALF_PI);
+		else if (curve == EASE_IN) p = 1f - (fast? FastTrig.quarterSin(1f - p): (float)Math.cos(p * HALF_PI));
+		else if (curve == EASED) p = easing[s].apply(p);
+		value[s] = start + d * p;
+	}
+	
+	private int curveOf(byte type)
+	{
+		if (type == SINE) return EASE_OUT;
+		if (type == COSINE) return EASE_IN;
+		if (type == EASE) return EASED;
+		return LINEAR;
+	}
+	
+	/*
+	 * moves the slot of a track into another group, by swapping it across the group bounds
+	 */
+	private void moveTo(int track, int group)
+	{
+		int g = trackGroup[track];
+		if (g == group) return;
+		int s = trackSlot[track];
+		
+		while (g < group)
+		{
+			int last = bounds[g + 1] - 1;
+			swap(s, last);
+			s = last;
+			bounds[g + 1]--;
+			g++;
+		}
+		while (g > group)
+		{
+			int first = bounds[g];
+			swap(s, first);
+			s = first;
+			bounds[g]++;
+			g--;
+		}
+		trackGroup[track] = group;
+		if (group == IDLE) previous[s] = value[s];
+	}
+	
+	private void swap(int a, int b)
+	{
+		if (a == b) return;
+		float f;
+		f = elapsed[a]; 	elapsed[a] = elapsed[b]; 		elapsed[b] = f;
+		f = duration[a]; 	duration[a] = duration[b]; 		duration[b] = f;
+		f = invDuration[a]; invDuration[a] = invDuration[b]; invDuration[b] = f;
+		f = from[a]; 		from[a] = from[b]; 				from[b] = f;
+		f = delta[a]; 		delta[a] = delta[b]; 			delta[b] = f;
+		f = value[a]; 		value[a] = value[b]; 			value[b] = f;
+		f = previous[a]; 	previous[a] = previous[b]; 		previous[b] = f;
+		Easing c = easing[a]; easing[a] = easing[b]; 		easing[b] = c;
+		int ta = slotTrack[a];
+		int tb = slotTrack[b];
+		slotTrack[a] = tb;
+		slotTrack[b] = ta;
+		trackSlot[ta] = b;
+		trackSlot[tb] = a;
+	}
+	
+	private void growTracks(int size)
+	{
+		elapsed 	= copy(elapsed, size);
+		duration 	= copy(duration, size);
+		invDuration = copy(invDuration, size);
+		from 		= copy(from, size);
+		delta 		= copy(delta, size);
+		value 		= copy(value, size);
+		previous 	= copy(previous, size);
+		easing 		= copy(easing, size);
+		slotTrack 	= copy(slotTrack, size);
+		trackSlot 	= copy(trackSlot, size);
+		trackGroup 	= copy(trackGroup, size);
+		firstStep 	= copy(firstStep, size);
+		lastStep 	= copy(lastStep, size);
+		currentStep = copy(currentStep, size);
+		startValue 	= copy(startValue, size);
+		repeat 		= copy(repeat, size);
+		enable 		= copy(enable, size);
+		complete 	= copy(complete, size);
+		done 		= new int[size];
+	}
+	
+	private void growSteps(int size)
+	{
+		byte[] t = new byte[size];
+		System.arraycopy(stepType, 0, t, 0, steps);
+		stepType 	= t;
+		stepValue 	= copy(stepValue, size);
+		stepTime 	= copy(stepTime, size);
+		stepEasing 	= copy(stepEasing, size);
+		nextStep 	= copy(nextStep, size);
+	}
+	
+	private float[] copy(float[] a, int size)
+	{
+		float[] n = new float[size];
+		System.arraycopy(a, 0, n, 0, a.length);
+		return n;
+	}
+	
+	private int[] copy(int[] a, int size)
+	{
+		int[] n = new int[size];
+		System.arraycopy(a, 0, n, 0, a.length);
+		return n;
+	}
+	
+	private Easing[] copy(Easing[] a, int size)
+	{
+		Easing[] n = new Easing[size];
+		System.arraycopy(a, 0, n, 0, a.length);
+		return n;
+	}
+	
+	private boolean[] copy(boolean[] a, int size)
+	{
+		boolean[] n = new boolean[size];
+		System.arraycopy(a, 0, n, 0, a.length);
+		return n;
+	}
+}
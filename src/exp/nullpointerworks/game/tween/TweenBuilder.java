@@ -0,0 +1,104 @@
+package exp.nullpointerworks.game.tween;
+
+/**
+ * fluent builder that fills tweens with elements from a TweenPool.<br>
+ * the builder itself is reusable, so building a sequence does not allocate once the pool is warm.
+ * <pre>
+ * Tween t = builder.begin(0f).move(10f, 1f).pause(0.5f).sine(0f, 1f).repeat(true).build();
+ * </pre>
+ */
+public class TweenBuilder
+{
+	private final TweenPool pool;
+	private Tween tween = null;
+	
+	public TweenBuilder(TweenPool pool)
+	{
+		this.pool = pool;
+	}
+	
+	/**
+	 * start building a new tween, acquired from the pool, at the given value.
+	 */
+	public TweenBuilder begin(float startValue)
+	{
+		tween = pool.acquire(startValue);
+		return this;
+	}
+	
+	/**
+	 * start building on an existing tween. its current elements are released to the pool.
+	 */
+	public TweenBuilder begin(Tween tween, float startValue)
+	{
+		pool.releaseElements(tween);
+		tween.clear(startValue);
+		this.tween = tween;
+		return this;
+	}
+	
+	public TweenBuilder scale(float factor, float time)
+	{
+		current().add( pool.scale(factor, time) );
+		return this;
+	}
+	
+	public TweenBuilder move(float value, float time)
+	{
+		current().add( pool.move(value, time) );
+		return this;
+	}
+	
+	public TweenBuilder pause(float time)
+	{
+		current().add( pool.pause(time) );
+		return this;
+	}
+	
+	public TweenBuilder sine(float value, float time)
+	{
+		current().add( pool.sine(value, time) );
+		return this;
+	}
+	
+	public TweenBuilder cosine(float value, float time)
+	{
+		current().add( pool.cosine(value, time) );
+		return this;
+	}
+	
+	public TweenBuilder ease(float value, float time, Easing easing)
+	{
+		current().add( pool.ease(value, time, easing) );
+		return this;
+	}
+	
+	public TweenBuilder value(float value)
+	{
+		current().add( pool.value(value) );
+		return this;
+	}
+	
+	public TweenBuilder repeat(boolean repeat)
+	{
+		current().setRepeat(repeat);
+		return this;
+	}
+	
+	/**
+	 * finish the tween and return it, reset to its first element.
+	 */
+	public Tween build()
+	{
+		Tween t = current();
+		t.reset();
+		tween = null;
+		return t;
+	}
+	
+	private Tween current()
+	{
+		if (tween == null) throw new IllegalStateException("begin() has not been called");
+		return tween;
+	}
+}
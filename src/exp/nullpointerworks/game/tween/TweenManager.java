@@ -0,0 +1,185 @@
+package exp.nullpointerworks.game.tween;
+
+import com.nullpointerworks.game.system.GameElement;
+
+/**
+ * a game element that updates all of its tweens every time the game system updates.<br>
+ * tweens and vector tweens that complete are removed right after their last update, by swapping the last tween into their place. when a TweenPool is set, completed tweens are released to it.<br>
+ * a tween can only be managed by one manager at a time. adding, removing and updating should happen on the thread that updates the game system.<br>
+ * example: system.addElement(manager, TWEENS); system.enableElements(TWEENS); manager.add(myTween);
+ */
+public class TweenManager extends GameElement
+{
+	private Tween[] tweens = new Tween[64];
+	private int tweenCount = 0;
+	private VectorTween[] vectors = new VectorTween[16];
+	private int vectorCount = 0;
+	private TweenPool pool = null;
+	private final TweenStats stats = new TweenStats();
+	
+	/**
+	 * release completed tweens to the given pool, or drop them when the pool is null
+	 */
+	public void setPool(TweenPool pool) {this.pool = pool;}
+	public TweenPool getPool() {return pool;}
+	
+	/**
+	 * returns the statistics of this manager
+	 */
+	public TweenStats getStats() {return stats;}
+	
+	/**
+	 * returns the amount of tweens and vector tweens in this manager
+	 */
+	public int getTweenCount() {return tweenCount + vectorCount;}
+	
+	/**
+	 * start updating the given tween. does nothing if the tween is already managed by this manager
+	 */
+	public void add(Tween tween)
+	{
+		if (contains(tween)) return;
+		if (tweenCount == tweens.length)
+		{
+			Tween[] n = new Tween[tweenCount << 1];
+			System.arraycopy(tweens, 0, n, 0, tweenCount);
+			tweens = n;
+		}
+		tween.managerIndex = tweenCount;
+		tweens[tweenCount++] = tween;
+		stats.recordAdd(getTweenCount());
+	}
+	
+	/**
+	 * start updating the given vector tween. does nothing if the tween is already managed by this manager
+	 */
+	public void add(VectorTween tween)
+	{
+		if (contains(tween)) return;
+		if (vectorCount == vectors.length)
+		{
+			VectorTween[] n = new VectorTween[vectorCount << 1];
+			System.arraycopy(vectors, 0, n, 0, vectorCount);
+			vectors = n;
+		}
+		tween.managerIndex = vectorCount;
+		vectors[vectorCount++] = tween;
+		stats.recordAdd(getTweenCount());
+	}
+	
+	/**
+	 * stop updating the given tween. returns false if the tween was not managed by this manager
+	 */
+	public boolean remove(Tween tween)
+	{
+		if (!contains(tween)) return false;
+		removeTween(tween.managerIndex);
+		stats.recordRemove(getTweenCount());
+		return true;
+	}
+	
+	/**
+	 * stop updating the given vector tween. returns false if the tween was not managed by this manager
+	 */
+	public boolean remove(VectorTween tween)
+	{
+		if (!contains(tween)) return false;
+		removeVector(tween.managerIndex);
+		stats.recordRemove(getTweenCount());
+		return true;
+	}
+	
+	public boolean contains(Tween tween)
+	{
+		int i = tween.managerIndex;
+		return i >= 0 && i < tweenCount && tweens[i] == tween;
+	}
+	
+	public boolean contains(VectorTween tween)
+	{
+		int i = tween.managerIndex;
+		return i >= 0 && i < vectorCount && vectors[i] == tween;
+	}
+	
+	/**
+	 * stop updating all tweens. tweens are not released to the pool
+	 */
+	public void clear()
+	{
+		while (tweenCount > 0) removeTween(tweenCount - 1);
+		while (vectorCount > 0) removeVector(vectorCount - 1);
+		stats.recordRemove(0);
+	}
+	
+	@Override
+	public void onInit() {}
+	
+	@Override
+	public void onUpdate(double time)
+	{
+		long start = System.nanoTime();
+		float t = (float)time;
+		
+		int i = 0;
+		while (i < tweenCount)
+		{
+			Tween tween = tweens[i];
+			tween.update(t);
+			if (!tween.isComplete())
+			{
+				i++;
+				continue;
+			}
+			removeTween(i); // moves the last tween into this index
+			stats.recordComplete(pool != null);
+			if (pool != null) pool.release(tween);
+		}
+		
+		i = 0;
+		while (i < vectorCount)
+		{
+			VectorTween tween = vectors[i];
+			tween.update(t);
+			if (!tween.isComplete())
+			{
+				i++;
+				continue;
+			}
+			removeVector(i);
+			stats.recordComplete(false);
+		}
+		
+		stats.recordUpdate(System.nanoTime() - start, getTweenCount());
+	}
+	
+	@Override
+	public void onRender(double interpolation) {}
+	
+	@Override
+	public void onDispose()
+	{
+		clear();
+	}
+	
+	// ====================================
+	
+	private void removeTween(int i)
+	{
+		Tween tween = tweens[i];
+		Tween last = tweens[--tweenCount];
+		tweens[i] = last;
+		last.managerIndex = i;
+		tweens[tweenCount] = null;
+		tween.managerIndex = -1;
+	}
+	
+	private void removeVector(int i)
+	{
+		VectorTween tween = vectors[i];
+		VectorTween last = vectors[--vectorCount];
+		vectors[i] = last;
+		last.managerIndex = i;
+		vectors[vectorCount] = null;
+		tween.managerIndex = -1;
+	}
+}
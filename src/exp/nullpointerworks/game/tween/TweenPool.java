@@ -0,0 +1,191 @@
+package exp.nullpointerworks.game.tween;
+
+import exp.nullpointerworks.game.tween.abstracts.TweenElement;
+import exp.nullpointerworks.game.tween.type.CosineTween;
+import exp.nullpointerworks.game.tween.type.EaseTween;
+import exp.nullpointerworks.game.tween.type.MoveTween;
+import exp.nullpointerworks.game.tween.type.PauseTween;
+import exp.nullpointerworks.game.tween.type.ScaleTween;
+import exp.nullpointerworks.game.tween.type.SineTween;
+import exp.nullpointerworks.game.tween.type.ValueTween;
+
+/**
+ * keeps released tweens and tween elements around to be acquired again, instead of allocating new ones.<br>
+ * the acquire methods mirror the Tween static functions. once the pool has grown to the amount of tweens in use, acquiring and releasing no longer allocates.<br>
+ * a pool is not thread-safe.
+ */
+public class TweenPool
+{
+	private static final int SCALE 	= 0;
+	private static final int MOVE 	= 1;
+	private static final int PAUSE 	= 2;
+	private static final int SINE 	= 3;
+	private static final int COSINE = 4;
+	private static final int VALUE 	= 5;
+	private static final int EASE 	= 6;
+	
+	private final TweenElement[][] elements = new TweenElement[7][16];
+	private final int[] counts = new int[7];
+	private Tween[] tweens = new Tween[16];
+	private int tweenCount = 0;
+	
+	/**
+	 * acquire an empty tween that starts at the given value.
+	 */
+	public Tween acquire(float startValue)
+	{
+		if (tweenCount == 0) return new Tween(startValue);
+		Tween tween = tweens[--tweenCount];
+		tweens[tweenCount] = null;
+		tween.clear(startValue);
+		tween.reset();
+		return tween;
+	}
+	
+	/**
+	 * release a tween and all of its elements back to the pool. the tween should no longer be used afterwards.
+	 */
+	public void release(Tween tween)
+	{
+		releaseElements(tween);
+		if (tweenCount == tweens.length) tweens = grow(tweens);
+		tweens[tweenCount++] = tween;
+	}
+	
+	/**
+	 * release all elements of a tween back to the pool, and clear the tween so it can be filled again.
+	 */
+	public void releaseElements(Tween tween)
+	{
+		for (int i=1, l=tween.tweens.size(); i<l; i++)
+		{
+			release(tween.tweens.get(i));
+		}
+		tween.clear();
+	}
+	
+	/**
+	 * release a single tween element back to the pool. the element should no longer be used afterwards.
+	 */
+	public void release(TweenElement element)
+	{
+		int type = typeOf(element);
+		if (counts[type] == elements[type].length) elements[type] = grow(elements[type]);
+		elements[type][counts[type]++] = element;
+	}
+	
+	/**
+	 * scale the starting value with a factor within a certain amount of time
+	 */
+	public TweenElement scale(float factor, float time)
+	{
+		ScaleTween e = (ScaleTween)take(SCALE);
+		if (e == null) return new ScaleTween(factor, time);
+		e.set(factor, time);
+		return e;
+	}
+	
+	/**
+	 * move the current value to the given value in a certain amount of time
+	 */
+	public TweenElement move(float value, float time)
+	{
+		MoveTween e = (MoveTween)take(MOVE);
+		if (e == null) return new MoveTween(value, time);
+		e.set(value, time);
+		return e;
+	}
+	
+	/**
+	 * pause value modification for a given time
+	 */
+	public TweenElement pause(float time)
+	{
+		PauseTween e = (PauseTween)take(PAUSE);
+		if (e == null) return new PauseTween(time);
+		e.set(time);
+		return e;
+	}
+	
+	/**
+	 * move to the given value using a sine function. starts strong, ends slow
+	 */
+	public TweenElement sine(float value, float time)
+	{
+		SineTween e = (SineTween)take(SINE);
+		if (e == null) return new SineTween(value, time);
+		e.set(value, time);
+		e.setTrigMode(FastTrig.DEFAULT);
+		return e;
+	}
+	
+	/**
+	 * move to the given value using the cosine function. starts slow, ends strong
+	 */
+	public TweenElement cosine(float value, float time)
+	{
+		CosineTween e = (CosineTween)take(COSINE);
+		if (e == null) return new CosineTween(value, time);
+		e.set(value, time);
+		e.setTrigMode(FastTrig.DEFAULT);
+		return e;
+	}
+	
+	/**
+	 * move to the given value along an easing curve in a certain amount of time
+	 */
+	public TweenElement ease(float value, float time, Easing easing)
+	{
+		EaseTween e = (EaseTween)take(EASE);
+		if (e == null) return new EaseTween(value, time, easing);
+		e.set(value, time, easing);
+		return e;
+	}
+	
+	/**
+	 * hard set a value in the tween at this point.
+	 */
+	public TweenElement value(float value)
+	{
+		ValueTween e = (ValueTween)take(VALUE);
+		if (e == null) return new ValueTween(value);
+		e.set(value);
+		return e;
+	}
+	
+	// ====================================
+	
+	private TweenElement take(int type)
+	{
+		if (counts[type] == 0) return null;
+		TweenElement e = elements[type][--counts[type]];
+		elements[type][counts[type]] = null;
+		return e;
+	}
+	
+	private int typeOf(TweenElement e)
+	{
+		if (e instanceof CosineTween) return COSINE; // extends SineTween
+		if (e instanceof SineTween) return SINE;
+		if (e instanceof MoveTween) return MOVE;
+		if (e instanceof ScaleTween) return SCALE;
+		if (e instanceof PauseTween) return PAUSE;
+		if (e instanceof ValueTween) return VALUE;
+		if (e instanceof EaseTween) return EASE;
+		throw new IllegalArgumentException("Unknown tween element: "+e.getClass().getName());
+	}
+	
+	private TweenElement[] grow(TweenElement[] a)
+	{
+		TweenElement[] n = new TweenElement[a.length << 1];
+		System.arraycopy(a, 0, n, 0, a.length);
+		return n;
+	}
+	
+	private Tween[] grow(Tween[] a)
+	{
+		Tween[] n = new Tween[a.length << 1];
+		System.arraycopy(a, 0, n, 0, a.length);
+		return n;
+	}
+}
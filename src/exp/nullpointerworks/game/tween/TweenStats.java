@@ -0,0 +1,78 @@
+package exp.nullpointerworks.game.tween;
+
+import com.nullpointerworks.game.stats.Histogram;
+
+/**
+ * statistics of a TweenManager. the manager records on the thread that updates it, any other thread may read them.<br>
+ * the update time histogram holds the duration of every manager update in nanoseconds, which is the per-tick cost of all managed tweens.
+ */
+public class TweenStats
+{
+	private final Histogram updateTime = new Histogram();
+	private volatile int active 		= 0;
+	private volatile long ticks 		= 0;
+	private volatile long added 		= 0;
+	private volatile long removed 		= 0;
+	private volatile long completed 	= 0;
+	private volatile long recycled 		= 0;
+	
+	void recordUpdate(long nanos, int active)
+	{
+		updateTime.record(nanos);
+		this.active = active;
+		ticks = ticks + 1;
+	}
+	
+	void recordAdd(int active)
+	{
+		this.active = active;
+		added = added + 1;
+	}
+	
+	void recordRemove(int active)
+	{
+		this.active = active;
+		removed = removed + 1;
+	}
+	
+	void recordComplete(boolean recycle)
+	{
+		completed = completed + 1;
+		if (recycle) recycled = recycled + 1;
+	}
+	
+	/**
+	 * returns the histogram of update durations in nanoseconds
+	 */
+	public Histogram getUpdateTime() {return updateTime;}
+	
+	/**
+	 * returns the amount of tweens currently managed
+	 */
+	public int getActive() {return active;}
+	
+	/**
+	 * returns the amount of times the manager has updated its tweens
+	 */
+	public long getTicks() {return ticks;}
+	
+	/**
+	 * returns the amount of tweens added to the manager
+	 */
+	public long getAdded() {return added;}
+	
+	/**
+	 * returns the amount of tweens removed from the manager by hand
+	 */
+	public long getRemoved() {return removed;}
+	
+	/**
+	 * returns the amount of tweens removed from the manager because they completed
+	 */
+	public long getCompleted() {return completed;}
+	
+	/**
+	 * returns the amount of completed tweens that were released to a TweenPool
+	 */
+	public long getRecycled() {return recycled;}
+}
@@ -0,0 +1,280 @@
+package exp.nullpointerworks.game.tween;
+
+/**
+ * a tween sequence that animates several values at once, like a position, a scale or a colour.<br>
+ * all channels share one clock and one curve evaluation per update. the values are copied into a caller-provided array, so updating does not allocate.<br>
+ * unlike Tween, time left over after a step completes carries into the next step, and a tween that does not repeat holds its end values.<br>
+ * example: VectorTween t = new VectorTween(0f, 0f).move(1f, 100f, 50f).ease(Easing.BACK_OUT, 0.5f, 0f, 0f);
+ */
+public class VectorTween
+{
+	private static final byte MOVE 		= 0;
+	private static final byte SCALE 	= 1;
+	private static final byte PAUSE 	= 2;
+	private static final byte SINE 		= 3;
+	private static final byte COSINE 	= 4;
+	private static final byte VALUE 	= 5;
+	private static final byte EASE 		= 6;
+	
+	private static final float HALF_PI = (float)(Math.PI * 0.5);
+	
+	private final int channels;
+	private final float[] start;
+	private final float[] from;
+	private final float[] to;
+	private final float[] current;
+	private final float[] previous;
+	
+	// step data, indexed by step. the values of a step are stored at step * channels
+	private byte[] stepType 		= new byte[4];
+	private float[] stepTime 		= new float[4];
+	private Easing[] stepEasing 	= new Easing[4];
+	private float[] stepValues;
+	private int steps = 0;
+	
+	private int step 			= 0;
+	private float elapsed 		= 0f;
+	private boolean repeat 		= false;
+	private boolean enable 		= true;
+	private boolean complete 	= false;
+	private int trigMode 		= FastTrig.DEFAULT;
+	int managerIndex 			= -1;
+	
+	/**
+	 * create a tween with one channel for every start value
+	 */
+	public VectorTween(float... start)
+	{
+		channels 	= start.length;
+		this.start 	= start.clone();
+		from 		= start.clone();
+		to 			= start.clone();
+		current 	= start.clone();
+		previous 	= start.clone();
+		stepValues 	= new float[4 * channels];
+	}
+	
+	/**
+	 * move all channels to the given values in a certain amount of time
+	 */
+	public VectorTween move(float time, float... values)
+	{
+		return step(MOVE, time, null, values);
+	}
+	
+	/**
+	 * scale every channel with its own factor within a certain amount of time
+	 */
+	public VectorTween scale(float time, float... factors)
+	{
+		return step(SCALE, time, null, factors);
+	}
+	
+	/**
+	 * pause value modification for a given time
+	 */
+	public VectorTween pause(float time)
+	{
+		return step(PAUSE, time, null, null);
+	}
+	
+	/**
+	 * move all channels to the given values using a sine function. starts strong, ends slow
+	 */
+	public VectorTween sine(float time, float... values)
+	{
+		return step(SINE, time, null, values);
+	}
+	
+	/**
+	 * move all channels to the given values using the cosine function. starts slow, ends strong
+	 */
+	public VectorTween cosine(float time, float... values)
+	{
+		return step(COSINE, time, null, values);
+	}
+	
+	/**
+	 * move all channels to the given values along an easing curve in a certain amount of time
+	 */
+	public VectorTween ease(Easing easing, float time, float... values)
+	{
+		return step(EASE, time, easing, values);
+	}
+	
+	/**
+	 * hard set the values of all channels at this point.
+	 */
+	public VectorTween value(float... values)
+	{
+		return step(VALUE, 0f, null, values);
+	}
+	
+	/**
+	 * reset the tween back to its start values and first step
+	 */
+	public void reset()
+	{
+		step 		= 0;
+		elapsed 	= 0f;
+		complete 	= false;
+		System.arraycopy(start, 0, from, 0, channels);
+		System.arraycopy(start, 0, current, 0, channels);
+		System.arraycopy(start, 0, previous, 0, channels);
+		if (steps > 0) begin(0);
+	}
+	
+	/**
+	 * delete all steps from this tween, and go back to the start values
+	 */
+	public void clear()
+	{
+		for (int i=0; i<steps; i++) stepEasing[i] = null;
+		steps = 0;
+		reset();
+	}
+	
+	/**
+	 * advance the tween by the given time, and calculate the new values of all channels
+	 */
+	public void update(float time)
+	{
+		System.arraycopy(current, 0, previous, 0, channels);
+		if (!enable || complete || steps == 0) return;
+		
+		elapsed += time;
+		int guard = steps + 1;
+		while (elapsed >= stepTime[step])
+		{
+			elapsed -= stepTime[step];
+			System.arraycopy(to, 0, from, 0, channels);
+			if (++step == steps)
+			{
+				if (!repeat || guard-- <= 0)
+				{
+					step = steps - 1;
+					complete = true;
+					System.arraycopy(from, 0, current, 0, channels);
+					return;
+				}
+				step = 0;
+				System.arraycopy(start, 0, from, 0, channels);
+			}
+			begin(step);
+		}
+		
+		float p = curve(step, elapsed / stepTime[step]);
+		for (int c=0; c<channels; c++)
+		{
+			current[c] = from[c] + (to[c] - from[c]) * p;
+		}
+	}
+	
+	/**
+	 * copy the current values of all channels into the given array
+	 */
+	public void getValues(float[] out)
+	{
+		System.arraycopy(current, 0, out, 0, channels);
+	}
+	
+	/**
+	 * copy the values of all channels between the previous and the current update into the given array
+	 */
+	public void getValues(float[] out, float interpolation)
+	{
+		for (int c=0; c<channels; c++)
+		{
+			out[c] = previous[c] + (current[c] - previous[c]) * interpolation;
+		}
+	}
+	
+	/**
+	 * return the current value of a single channel
+	 */
+	public float getValue(int channel)
+	{
+		return current[channel];
+	}
+	
+	public int getChannelCount() {return channels;}
+	public boolean isComplete() {return complete;}
+	public boolean isRepeat() {return repeat;}
+	public boolean isEnable() {return enable;}
+	public void setRepeat(boolean repeat) {this.repeat = repeat;}
+	public void setEnable(boolean enable) {this.enable = enable;}
+	
+	/**
+	 * use exact or fast math for the sine and cosine steps. one of FastTrig.DEFAULT, FastTrig.EXACT or FastTrig.FAST
+	 */
+	public void setTrigMode(int mode) {trigMode = mode;}
+	public int getTrigMode() {return trigMode;}
+	
+	// ====================================
+	
+	private VectorTween step(byte type, float time, Easing easing, float[] values)
+	{
+		if (values != null && values.length != channels)
+		{
+			throw new IllegalArgumentException("Expected "+channels+" values, got "+values.length);
+		}
+		if (steps == stepType.length) grow(steps << 1);
+		
+		int st = steps++;
+		stepType[st] 	= type;
+		stepTime[st] 	= (time<0f)? 0f: time;
+		stepEasing[st] 	= easing;
+		if (values != null) System.arraycopy(values, 0, stepValues, st * channels, channels);
+		if (st == 0) reset();
+		return this;
+	}
+	
+	/*
+	 * sets the end values of the step, starting from the current from values
+	 */
+	private void begin(int st)
+	{
+		byte type = stepType[st];
+		int o = st * channels;
+		if (type == PAUSE)
+		{
+			System.arraycopy(from, 0, to, 0, channels);
+		}
+		else if (type == SCALE)
+		{
+			for (int c=0; c<channels; c++) to[c] = from[c] * stepValues[o + c];
+		}
+		else
+		{
+			System.arraycopy(stepValues, o, to, 0, channels);
+		}
+	}
+	
+	private float curve(int st, float p)
+	{
+		byte type = stepType[st];
+		if (type == EASE) return stepEasing[st].apply(p);
+		if (type == SINE) return FastTrig.isFast(trigMode)? FastTrig.quarterSin(p): (float)Math.sin(p * HALF_PI);
+		if (type == COSINE) return 1f - (FastTrig.isFast(trigMode)? FastTrig.quarterSin(1f - p): (float)Math.cos(p * HALF_PI));
+		return p;
+	}
+	
+	private void grow(int size)
+	{
+		byte[] t = new byte[size];
+		System.arraycopy(stepType, 0, t, 0, steps);
+		stepType = t;
+		
+		float[] f = new float[size];
+		System.arraycopy(stepTime, 0, f, 0, steps);
+		stepTime = f;
+		
+		Easing[] e = new Easing[size];
+		System.arraycopy(stepEasing, 0, e, 0, steps);
+		stepEasing = e;
+		
+		f = new float[size * channels];
+		System.arraycopy(stepValues, 0, f, 0, steps * channels);
+		stepValues = f;
+	}
+}
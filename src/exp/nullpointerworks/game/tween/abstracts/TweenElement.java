@@ -16,7 +16,7 @@ public abstract class TweenElement
 	
 	protected float lerp(float start, float end, float lerp) 
 	{
-		return start - (start+end)*lerp;
+		return start + (end-start)*lerp;
 	}
 
 	protected float clamp(float l, float x, float h) 
@@ -26,6 +26,14 @@ public abstract class TweenElement
 		return x;
 	}
 	
+	/**
+	 * returns the time this element takes to complete. elements that complete instantly return 0
+	 */
+	public float getDuration() 
+	{
+		return 0f;
+	}
+	
 	// ===============================
 	
 	public abstract void update(float time);
@@ -0,0 +1,69 @@
+package exp.nullpointerworks.game.tween.type;
+
+import exp.nullpointerworks.game.tween.Easing;
+import exp.nullpointerworks.game.tween.abstracts.TweenElement;
+
+public class EaseTween extends TweenElement
+{
+	private Easing easing = Easing.LINEAR;
+	private float targetValue = 0f;
+	private float startValue = 0f;
+	private float totalTime = 1f;
+	private float duration = 1f;
+	
+	private float currentTime = 0f;
+	private float perc = 0f;
+	
+	public EaseTween(float value, float time, Easing easing)
+	{
+		set(value, time, easing);
+	}
+	
+	/**
+	 * reconfigure this tween to move to the given value along an easing curve in a certain amount of time
+	 */
+	public void set(float value, float time, Easing easing)
+	{
+		this.easing = easing;
+		targetValue = value;
+		totalTime = 1f / time;
+		duration = time;
+		reset();
+	}
+	
+	@Override
+	public float getDuration()
+	{
+		return duration;
+	}
+	
+	@Override
+	public void setValue(float value)
+	{
+		super.setValue(value);
+		startValue = value;
+	}
+	
+	@Override
+	public void update(float time)
+	{
+		currentTime += time;
+		perc = currentTime * totalTime;
+		perc = clamp(0f, perc, 1f);
+		super.setValue( startValue + (targetValue - startValue) * easing.apply(perc) );
+	}
+	
+	@Override
+	public boolean isComplete()
+	{
+		return perc >= 1.0f;
+	}
+	
+	@Override
+	public void reset()
+	{
+		currentTime = 0f;
+		perc = 0f;
+	}
+	
+}
@@ -7,15 +7,32 @@ public class MoveTween extends TweenElement
 	private float targetValue = 0f;
 	private float startValue = 0f;
 	private float totalTime = 1f;
+	private float duration = 1f;
 	
 	private float currentTime = 0f;
 	private float perc = 0f;
 	
 	
 	public MoveTween(float value, float time)
+	{
+		set(value, time);
+	}
+	
+	/**
+	 * reconfigure this tween to move to the given value in a certain amount of time
+	 */
+	public void set(float value, float time)
 	{
 		targetValue = value;
 		totalTime = 1f / time;
+		duration = time;
+		reset();
+	}
+	
+	@Override
+	public float getDuration() 
+	{
+		return duration;
 	}
 	
 	public void setValue(float value) 
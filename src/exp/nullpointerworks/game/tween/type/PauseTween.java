@@ -8,8 +8,23 @@ public class PauseTween extends TweenElement
 	private float currentTime = 0f;
 	
 	public PauseTween(float time)
+	{
+		set(time);
+	}
+	
+	/**
+	 * reconfigure this tween to pause for a given time
+	 */
+	public void set(float time)
 	{
 		endTime = time;
+		reset();
+	}
+	
+	@Override
+	public float getDuration() 
+	{
+		return endTime;
 	}
 	
 	@Override
@@ -6,6 +6,7 @@ public class ScaleTween extends TweenElement
 {
 	private float currentTime = 0f;
 	private float totalTime = 0f;
+	private float duration = 0f;
 	private float scaling = 1f;
 	private float perc = 0f;
 	
@@ -13,9 +14,25 @@ public class ScaleTween extends TweenElement
 	private float endVal = 0f;
 	
 	public ScaleTween(float factor, float totalTime)
+	{
+		set(factor, totalTime);
+	}
+	
+	/**
+	 * reconfigure this tween to scale with a factor within a certain amount of time
+	 */
+	public void set(float factor, float totalTime)
 	{
 		scaling = factor;
 		this.totalTime = 1f / totalTime;
+		duration = totalTime;
+		reset();
+	}
+	
+	@Override
+	public float getDuration() 
+	{
+		return duration;
 	}
 	
 	public void setValue(float value) 
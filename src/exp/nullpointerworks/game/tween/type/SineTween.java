@@ -1,5 +1,6 @@
 package exp.nullpointerworks.game.tween.type;
 
+import exp.nullpointerworks.game.tween.FastTrig;
 import exp.nullpointerworks.game.tween.abstracts.TweenElement;
 
 public class SineTween extends TweenElement
@@ -12,13 +13,37 @@ public class SineTween extends TweenElement
 	
 	private float angle = 0f;
 	private float angleStep = 0f;
+	private float duration = 0f;
+	private int trigMode = FastTrig.DEFAULT;
 	
 	public SineTween(float value, float time)
+	{
+		set(value, time);
+	}
+	
+	/**
+	 * reconfigure this tween to move to the given value in a certain amount of time
+	 */
+	public void set(float value, float time)
 	{
 		targetValue = value;
 		angleStep = 90f / time;
+		duration = time;
+		reset();
 	}
-
+	
+	@Override
+	public float getDuration()
+	{
+		return duration;
+	}
+	
+	/**
+	 * use exact or fast math for this tween. one of FastTrig.DEFAULT, FastTrig.EXACT or FastTrig.FAST
+	 */
+	public void setTrigMode(int mode) {trigMode = mode;}
+	public int getTrigMode() {return trigMode;}
+	
 	@Override
 	public void setValue(float value)
 	{
@@ -45,9 +70,24 @@ public class SineTween extends TweenElement
 	public void update(float time) 
 	{
 		angle += (angleStep*time);
-		float val = startValue + (float)Math.sin(angle * RADIAN)*deltaValue;
-		val = clamp(startValue, val, targetValue);
+		float val = startValue + curve(angle)*deltaValue;
+		val = (deltaValue<0f)? clamp(targetValue, val, startValue): clamp(startValue, val, targetValue);
 		super.setValue(val);
 	}
-
+	
+	/**
+	 * the progress along the curve at the given angle in degrees
+	 */
+	protected float curve(float angle)
+	{
+		if (angle > 90f) angle = 90f;
+		if (isFastMath()) return FastTrig.quarterSin(angle / 90f);
+		return (float)Math.sin(angle / RADIAN);
+	}
+	
+	protected boolean isFastMath()
+	{
+		return FastTrig.isFast(trigMode);
+	}
+	
 }
@@ -7,6 +7,14 @@ public class ValueTween extends TweenElement
 	private float value;
 	
 	public ValueTween(float value)
+	{
+		set(value);
+	}
+	
+	/**
+	 * reconfigure this tween to set the given value
+	 */
+	public void set(float value)
 	{
 		this.value=value;
 	}
@@ -11,5 +11,8 @@ module libnpw.game
 	requires transitive java.desktop;
 	exports com.nullpointerworks.game;
 	exports com.nullpointerworks.game.event;
+	exports com.nullpointerworks.game.replay;
+	exports com.nullpointerworks.game.stats;
 	exports com.nullpointerworks.game.system;
+	exports com.nullpointerworks.game.time;
 }
\ No newline at end of file